@@ -0,0 +1,81 @@
+package com.github.hexocraft.lib.utilities;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Input corpora shared by the benchmarks, read from the corpus/ resources.
+ */
+public final class Corpus {
+
+    private Corpus() {
+        throw new IllegalAccessError("This is a private constructor");
+    }
+
+    /**
+     * @return version strings, semver compliant or not
+     */
+    public static String[] versions() {
+        return load("versions.txt");
+    }
+
+    /**
+     * @return pre-release and build tags
+     */
+    public static String[] tags() {
+        return load("tags.txt");
+    }
+
+    /**
+     * @return file paths in unix and windows formats
+     */
+    public static String[] paths() {
+        return load("paths.txt");
+    }
+
+    /**
+     * Load the non empty lines of a corpus file, lines starting with '#' are comments.
+     */
+    private static String[] load(String name) {
+        try (InputStream in = Corpus.class.getResourceAsStream("/corpus/" + name)) {
+            if (in == null)
+                throw new IllegalStateException("Missing corpus: " + name);
+
+            List<String> lines = new ArrayList<>();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isEmpty() && !line.startsWith("#"))
+                    lines.add(line);
+            }
+            return lines.toArray(new String[0]);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.hexocraft.lib.utilities;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+
+/**
+ * {@link Logger} throughput, with the records discarded by the root handler so that console output is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    private Handler[] rootHandlers;
+
+    @Setup
+    public void setup() {
+        java.util.logging.Logger root = java.util.logging.Logger.getLogger("");
+        rootHandlers = root.getHandlers();
+        for (Handler handler : rootHandlers) {
+            root.removeHandler(handler);
+        }
+        root.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        java.util.logging.Logger root = java.util.logging.Logger.getLogger("");
+        for (Handler handler : root.getHandlers()) {
+            root.removeHandler(handler);
+        }
+        for (Handler handler : rootHandlers) {
+            root.addHandler(handler);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void log() {
+        Logger.log("Loaded 42 regions in world");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logContended() {
+        Logger.logWarning("Could not find player data");
+    }
+}
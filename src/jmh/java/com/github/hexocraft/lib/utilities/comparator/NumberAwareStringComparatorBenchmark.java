@@ -0,0 +1,55 @@
+package com.github.hexocraft.lib.utilities.comparator;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import com.github.hexocraft.lib.utilities.Corpus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link NumberAwareStringComparator#compare} on every pair of the tag corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberAwareStringComparatorBenchmark {
+
+    private String[] tags;
+
+    @Setup
+    public void setup() {
+        tags = Corpus.tags();
+    }
+
+    @Benchmark
+    public void compare(Blackhole bh) {
+        NumberAwareStringComparator comparator = NumberAwareStringComparator.INSTANCE;
+        for (String s1 : tags) {
+            for (String s2 : tags) {
+                bh.consume(comparator.compare(s1, s2));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.hexocraft.lib.utilities.file;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import com.github.hexocraft.lib.utilities.Corpus;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link FilenameUtils#normalize} and {@link FilenameUtils#wildcardMatch} over the path corpus.
+ * Each operation processes the whole corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilenameUtilsBenchmark {
+
+    private static final String[] PATTERNS = {"*.yml", "*/region/r.*.mca", "plugins/*/config.yml", "*.dat", "*/playerdata/????????-*.dat"};
+
+    private String[] paths;
+
+    @Setup
+    public void setup() {
+        paths = Corpus.paths();
+    }
+
+    @Benchmark
+    public void normalize(Blackhole bh) {
+        for (String path : paths) {
+            bh.consume(FilenameUtils.normalize(path, true));
+        }
+    }
+
+    @Benchmark
+    public void wildcardMatch(Blackhole bh) {
+        for (String path : paths) {
+            String unix = FilenameUtils.separatorsToUnix(path);
+            for (String pattern : PATTERNS) {
+                bh.consume(FilenameUtils.wildcardMatch(unix, pattern, IOCase.SENSITIVE));
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import com.github.hexocraft.lib.utilities.Corpus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link SemVer} parsing, comparison and sorting over the version corpus.
+ * Each operation processes the whole corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SemVerBenchmark {
+
+    private String[] strings;
+    private SemVer[] versions;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        strings = Corpus.versions();
+        versions = Arrays.stream(strings).map(SemVer::parse).filter(v -> v != null).toArray(SemVer[]::new);
+        buffer = ByteBuffer.allocate(Arrays.stream(versions).mapToInt(SemVer::encodedLength).max().orElse(0));
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        for (String s : strings) {
+            bh.consume(SemVer.parse(s));
+        }
+    }
+
+    @Benchmark
+    public void compareTo(Blackhole bh) {
+        for (int i = 0; i < versions.length; i++) {
+            bh.consume(versions[i].compareTo(versions[(i + 1) % versions.length]));
+        }
+    }
+
+    @Benchmark
+    public void getBytes(Blackhole bh) {
+        for (SemVer version : versions) {
+            buffer.clear();
+            buffer.put(version.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        bh.consume(buffer);
+    }
+
+    @Benchmark
+    public void writeUtf8(Blackhole bh) {
+        for (SemVer version : versions) {
+            buffer.clear();
+            version.writeUtf8(buffer);
+        }
+        bh.consume(buffer);
+    }
+
+    @Benchmark
+    public void diff(Blackhole bh) {
+        for (int i = 0; i < versions.length; i++) {
+            bh.consume(versions[i].diff(versions[(i + 1) % versions.length]));
+        }
+    }
+
+    @Benchmark
+    public List<SemVer> sort() {
+        List<SemVer> list = new ArrayList<>(Arrays.asList(versions));
+        Collections.sort(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<SemVer> sortPacked() {
+        List<SemVer> list = new ArrayList<>(Arrays.asList(versions));
+        SemVers.sort(list);
+        return list;
+    }
+}
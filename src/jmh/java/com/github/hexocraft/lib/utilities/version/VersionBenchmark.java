@@ -0,0 +1,71 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import com.github.hexocraft.lib.utilities.Corpus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link Version} parsing over the version corpus, including non semver server strings.
+ * Each operation processes the whole corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionBenchmark {
+
+    private String[] strings;
+    private VersionExtractor extractor;
+    private VersionExtractor cachedExtractor;
+
+    @Setup
+    public void setup() {
+        strings = Corpus.versions();
+        extractor = new VersionExtractor().preferToken("MC:");
+        cachedExtractor = new VersionExtractor().preferToken("MC:").cacheSize(strings.length);
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        for (String s : strings) {
+            bh.consume(Version.parse(s));
+        }
+    }
+
+    @Benchmark
+    public void extract(Blackhole bh) {
+        for (String s : strings) {
+            bh.consume(extractor.extract(s));
+        }
+    }
+
+    @Benchmark
+    public void extractCached(Blackhole bh) {
+        for (String s : strings) {
+            bh.consume(cachedExtractor.extract(s));
+        }
+    }
+}
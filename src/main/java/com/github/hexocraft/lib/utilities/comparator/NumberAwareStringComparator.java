@@ -18,54 +18,129 @@ package com.github.hexocraft.lib.utilities.comparator;
 
  */
 
-import java.math.BigInteger;
 import java.util.Comparator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 
+/**
+ * Compare strings by splitting them in runs of non-digits and digits: non-digit runs are compared lexicographically
+ * and digit runs numerically (leading zeros ignored, no length limit).
+ *
+ * <p>The strings are scanned in place, so comparing does not allocate.
+ */
 public class NumberAwareStringComparator implements Comparator<CharSequence> {
 
     public static final NumberAwareStringComparator INSTANCE = new NumberAwareStringComparator();
 
-    private static final Pattern PATTERN = Pattern.compile("(\\D*)(\\d*)");
-
     private NumberAwareStringComparator() {
     }
 
     @Override
     public int compare(CharSequence s1, CharSequence s2) {
-        Matcher m1 = PATTERN.matcher(s1);
-        Matcher m2 = PATTERN.matcher(s2);
-
-        // The only way find() could fail is at the end of a string
-        while (m1.find() && m2.find()) {
-            // matcher.group(1) fetches any non-digits captured by the
-            // first parentheses in PATTERN.
-            int nonDigitCompare = m1.group(1).compareTo(m2.group(1));
+        return compare(s1, 0, s1.length(), s2, 0, s2.length());
+    }
+
+    /**
+     * Compare two regions of strings, the same way as {@link #compare(CharSequence, CharSequence)} on the substrings.
+     *
+     * @param s1 first string
+     * @param from1 start of the first region (inclusive)
+     * @param to1 end of the first region (exclusive)
+     * @param s2 second string
+     * @param from2 start of the second region (inclusive)
+     * @param to2 end of the second region (exclusive)
+     *
+     * @return a negative integer, zero, or a positive integer as the first region is less than, equal to, or greater
+     * than the second one
+     */
+    public int compare(CharSequence s1, int from1, int to1, CharSequence s2, int from2, int to2) {
+        int i1 = from1;
+        int i2 = from2;
+
+        while (true) {
+            // Compare the runs of non-digits
+            int end1 = skip(s1, i1, to1, false);
+            int end2 = skip(s2, i2, to2, false);
+            int nonDigitCompare = compareChars(s1, i1, end1, s2, i2, end2);
             if (0 != nonDigitCompare) {
                 return nonDigitCompare;
             }
-
-            // matcher.group(2) fetches any digits captured by the
-            // second parentheses in PATTERN.
-            if (m1.group(2).isEmpty()) {
-                return m2.group(2).isEmpty() ? 0 : -1;
-            } else if (m2.group(2).isEmpty()) {
+            i1 = end1;
+            i2 = end2;
+
+            // Compare the runs of digits.
+            // A run of non-digits not followed by digits is the end of the string
+            end1 = skip(s1, i1, to1, true);
+            end2 = skip(s2, i2, to2, true);
+            if (end1 == i1) {
+                return end2 == i2 ? 0 : -1;
+            } else if (end2 == i2) {
                 return +1;
             }
-
-            BigInteger n1 = new BigInteger(m1.group(2));
-            BigInteger n2 = new BigInteger(m2.group(2));
-            int numberCompare = n1.compareTo(n2);
+            int numberCompare = compareNumbers(s1, i1, end1, s2, i2, end2);
             if (0 != numberCompare) {
                 return numberCompare;
             }
+            i1 = end1;
+            i2 = end2;
         }
+    }
 
-        // Handle if one string is a prefix of the other.
-        // Nothing comes before something.
-        return m1.hitEnd() && m2.hitEnd() ? 0 : m1.hitEnd() ? -1 : +1;
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    /**
+     * @return the end of the run of digits (or non-digits) starting at the given index
+     */
+    private static int skip(CharSequence s, int from, int to, boolean digits) {
+        while (from < to && isDigit(s.charAt(from)) == digits) {
+            from++;
+        }
+        return from;
     }
-}
 
+    /**
+     * Same result as {@link String#compareTo(String)} on the two regions.
+     */
+    private static int compareChars(CharSequence s1, int from1, int to1, CharSequence s2, int from2, int to2) {
+        final int len1 = to1 - from1;
+        final int len2 = to2 - from2;
+        final int lim = Math.min(len1, len2);
+        for (int k = 0; k < lim; k++) {
+            final char c1 = s1.charAt(from1 + k);
+            final char c2 = s2.charAt(from2 + k);
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return len1 - len2;
+    }
+
+    /**
+     * Numeric comparison of two runs of digits, returning -1, 0 or +1.
+     */
+    private static int compareNumbers(CharSequence s1, int from1, int to1, CharSequence s2, int from2, int to2) {
+        // Ignore leading zeros
+        while (from1 < to1 - 1 && s1.charAt(from1) == '0') {
+            from1++;
+        }
+        while (from2 < to2 - 1 && s2.charAt(from2) == '0') {
+            from2++;
+        }
+
+        // A longer number is a bigger number
+        final int len1 = to1 - from1;
+        final int len2 = to2 - from2;
+        if (len1 != len2) {
+            return len1 < len2 ? -1 : +1;
+        }
+        for (int k = 0; k < len1; k++) {
+            final char c1 = s1.charAt(from1 + k);
+            final char c2 = s2.charAt(from2 + k);
+            if (c1 != c2) {
+                return c1 < c2 ? -1 : +1;
+            }
+        }
+        return 0;
+    }
+}
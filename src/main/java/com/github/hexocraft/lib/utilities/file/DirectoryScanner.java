@@ -0,0 +1,351 @@
+package com.github.hexocraft.lib.utilities.file;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * <p>Walk a directory tree and find the files matching include/exclude wildcards.
+ *
+ * <p>Wildcards are matched with {@link FilenameUtils#wildcardMatch(String, String, IOCase)} against the path of each
+ * file relative to the root directory, using '/' as separator (e.g. "region/*.mca" or "playerdata/*.dat").
+ *
+ * <ul>
+ * <li>If no include pattern is given, every file is included.
+ * <li>A directory is only entered if the literal prefix of at least one include pattern (the text before its first
+ * wildcard) is compatible with the directory path.
+ * <li>A directory is skipped if an exclude pattern ending with '*' already matches the directory path.
+ * </ul>
+ *
+ * <p>Symbolic links are never followed, they are reported as files.
+ *
+ * <p>Directories are read with {@link Files#newDirectoryStream(Path)} one at a time, so results are produced lazily.
+ * A parallel stream splits the pending directories between the workers of the common fork-join pool.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class DirectoryScanner {
+
+    /**
+     * Root directory of the scan.
+     */
+    private final @NonNull Path root;
+
+    /**
+     * Include patterns (potentially empty, but never null).
+     */
+    private final @NonNull List<WildcardPattern> includes = new ArrayList<>();
+
+    /**
+     * Exclude patterns (potentially empty, but never null).
+     */
+    private final @NonNull List<WildcardPattern> excludes = new ArrayList<>();
+
+    /**
+     * Case sensitivity rule used to match the patterns.
+     */
+    private @NonNull IOCase caseSensitivity = IOCase.SENSITIVE;
+
+
+    /**
+     * @param root root directory of the scan.
+     */
+    public DirectoryScanner(@NonNull Path root) {
+        this.root = root;
+    }
+
+
+    // Configuration
+    //--------------------------------------------------------------------------
+
+    /**
+     * Add include patterns.
+     *
+     * @param patterns wildcard patterns relative to the root directory.
+     *
+     * @return this scanner
+     */
+    public @NonNull DirectoryScanner include(@NonNull String... patterns) {
+        for (String pattern : patterns) {
+            includes.add(new WildcardPattern(pattern));
+        }
+        return this;
+    }
+
+    /**
+     * Add exclude patterns.
+     *
+     * @param patterns wildcard patterns relative to the root directory.
+     *
+     * @return this scanner
+     */
+    public @NonNull DirectoryScanner exclude(@NonNull String... patterns) {
+        for (String pattern : patterns) {
+            excludes.add(new WildcardPattern(pattern));
+        }
+        return this;
+    }
+
+    /**
+     * Set the case sensitivity rule used to match the patterns.
+     *
+     * @param caseSensitivity what case sensitivity rule to use, null means case-sensitive.
+     *
+     * @return this scanner
+     */
+    public @NonNull DirectoryScanner caseSensitivity(@Nullable IOCase caseSensitivity) {
+        this.caseSensitivity = caseSensitivity == null ? IOCase.SENSITIVE : caseSensitivity;
+        return this;
+    }
+
+
+    // Scan
+    //--------------------------------------------------------------------------
+
+    /**
+     * Stream the matching files.
+     *
+     * <p>An {@link IOException} raised while reading a directory is rethrown as {@link UncheckedIOException}.
+     *
+     * @return a lazy sequential {@link Stream} of the matching files.
+     */
+    public @NonNull Stream<Path> stream() {
+        return StreamSupport.stream(new PathSpliterator(root), false);
+    }
+
+    /**
+     * Scan the directory tree in parallel and call the action for each matching file.
+     *
+     * @param action action to call for each matching file, it must be thread safe.
+     */
+    public void scan(@NonNull Consumer<? super Path> action) {
+        StreamSupport.stream(new PathSpliterator(root), true).forEach(action);
+    }
+
+    /**
+     * Check if a file must be reported.
+     *
+     * @param path path of the file relative to the root directory.
+     *
+     * @return true if the file is included and not excluded.
+     */
+    boolean isIncluded(@NonNull String path) {
+        for (WildcardPattern exclude : excludes) {
+            if (exclude.matches(path, caseSensitivity))
+                return false;
+        }
+        if (includes.isEmpty())
+            return true;
+        for (WildcardPattern include : includes) {
+            if (include.matches(path, caseSensitivity))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if a directory must be entered.
+     *
+     * @param path path of the directory relative to the root directory, ending with '/'.
+     *
+     * @return true if a file inside this directory could be reported.
+     */
+    boolean isTraversed(@NonNull String path) {
+        for (WildcardPattern exclude : excludes) {
+            if (exclude.excludesAll(path, caseSensitivity))
+                return false;
+        }
+        if (includes.isEmpty())
+            return true;
+        for (WildcardPattern include : includes) {
+            if (include.mayMatchUnder(path, caseSensitivity))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the path of a file relative to the root directory, with unix separators.
+     */
+    private @NonNull String relative(@NonNull Path path) {
+        return FilenameUtils.separatorsToUnix(root.relativize(path).toString());
+    }
+
+
+    // Internal classes
+    //--------------------------------------------------------------------------
+
+    /**
+     * Compiled wildcard pattern.
+     */
+    private static final class WildcardPattern {
+
+        /**
+         * Wildcard pattern with unix separators.
+         */
+        private final @NonNull String wildcard;
+
+        /**
+         * Text before the first wildcard.
+         */
+        private final @NonNull String literalPrefix;
+
+        /**
+         * If the pattern ends with '*'.
+         */
+        private final boolean openEnded;
+
+        private WildcardPattern(@NonNull String wildcard) {
+            this.wildcard = FilenameUtils.separatorsToUnix(wildcard);
+
+            int end = this.wildcard.length();
+            for (int i = 0; i < this.wildcard.length(); i++) {
+                char ch = this.wildcard.charAt(i);
+                if (ch == '*' || ch == '?') {
+                    end = i;
+                    break;
+                }
+            }
+            this.literalPrefix = this.wildcard.substring(0, end);
+            this.openEnded = this.wildcard.endsWith("*");
+        }
+
+        private boolean matches(@NonNull String path, @NonNull IOCase caseSensitivity) {
+            return FilenameUtils.wildcardMatch(path, wildcard, caseSensitivity);
+        }
+
+        /**
+         * A path below the directory can only match if the directory and the literal prefix share a common start.
+         */
+        private boolean mayMatchUnder(@NonNull String directory, @NonNull IOCase caseSensitivity) {
+            if (literalPrefix.length() >= directory.length())
+                return caseSensitivity.checkStartsWith(literalPrefix, directory);
+            return caseSensitivity.checkStartsWith(directory, literalPrefix);
+        }
+
+        /**
+         * If the directory already matches a pattern ending with '*', every path below it matches too.
+         */
+        private boolean excludesAll(@NonNull String directory, @NonNull IOCase caseSensitivity) {
+            return openEnded && matches(directory, caseSensitivity);
+        }
+    }
+
+    /**
+     * Spliterator reading one directory at a time.
+     * Splitting hands half of the pending directories over to the new spliterator.
+     */
+    private final class PathSpliterator implements Spliterator<Path> {
+
+        /**
+         * Directories still to be read.
+         */
+        private final @NonNull Deque<Path> directories;
+
+        /**
+         * Matching files found in the directories already read.
+         */
+        private final @NonNull Deque<Path> files = new ArrayDeque<>();
+
+        private PathSpliterator(@NonNull Path directory) {
+            this.directories = new ArrayDeque<>();
+            this.directories.add(directory);
+        }
+
+        private PathSpliterator(@NonNull Deque<Path> directories) {
+            this.directories = directories;
+        }
+
+        @Override
+        public boolean tryAdvance(@NonNull Consumer<? super Path> action) {
+            while (files.isEmpty()) {
+                Path directory = directories.pollFirst();
+                if (directory == null)
+                    return false;
+                read(directory);
+            }
+            action.accept(files.pollFirst());
+            return true;
+        }
+
+        @Override
+        public @Nullable Spliterator<Path> trySplit() {
+            // Read ahead until there is something to share
+            while (directories.size() == 1) {
+                read(directories.pollFirst());
+            }
+            if (directories.size() < 2)
+                return null;
+
+            Deque<Path> half = new ArrayDeque<>();
+            for (int i = directories.size() / 2; i > 0; i--) {
+                half.add(directories.pollLast());
+            }
+            return new PathSpliterator(half);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return NONNULL | DISTINCT;
+        }
+
+        private void read(@NonNull Path directory) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    String path = relative(entry);
+                    if (attributes.isDirectory()) {
+                        if (isTraversed(path + '/'))
+                            directories.addLast(entry);
+                    }
+                    else if (isIncluded(path)) {
+                        files.addLast(entry);
+                    }
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
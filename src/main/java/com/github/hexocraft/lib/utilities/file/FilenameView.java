@@ -0,0 +1,441 @@
+package com.github.hexocraft.lib.utilities.file;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.apache.commons.io.FilenameUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.File;
+
+
+/**
+ * <p>Decompose a file name in a single pass.
+ *
+ * <p>{@link #reset(CharSequence)} scans the file name once to find the prefix length, the last separator and the
+ * extension. The components are then available as indexes, or as strings built on demand, with the same results as
+ * the matching {@link FilenameUtils} methods.
+ *
+ * <p>A view can be reused for many file names to avoid allocating one per file. This class is not thread safe.
+ *
+ * <pre>
+ * FilenameView view = new FilenameView();
+ * for (String file : files) {
+ *     view.reset(file);
+ *     if (view.isExtension("yml")) ... view.getBaseName() ...
+ * }
+ * </pre>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class FilenameView {
+
+    private static final int NOT_FOUND = -1;
+
+    private static final boolean SYSTEM_WINDOWS = File.separatorChar == '\\';
+
+    /**
+     * Current file name, may be null.
+     */
+    private @Nullable CharSequence fileName;
+
+    /**
+     * Length of the prefix, -1 if invalid.
+     */
+    private int prefixLength;
+
+    /**
+     * Index of the last separator, -1 if none.
+     */
+    private int lastSeparator;
+
+    /**
+     * Index of the last dot after the last separator, -1 if none.
+     */
+    private int extension;
+
+    /**
+     * If there is a colon after the last separator (NTFS ADS).
+     */
+    private boolean colonInName;
+
+    /**
+     * If the file name contains a null byte.
+     */
+    private boolean nullByte;
+
+
+    public FilenameView() {
+        reset(null);
+    }
+
+    /**
+     * @param fileName the file name to decompose, may be null.
+     */
+    public FilenameView(@Nullable CharSequence fileName) {
+        reset(fileName);
+    }
+
+
+    /**
+     * Decompose a new file name.
+     *
+     * @param fileName the file name to decompose, may be null.
+     *
+     * @return this view
+     */
+    public FilenameView reset(@Nullable CharSequence fileName) {
+        this.fileName = fileName;
+        this.lastSeparator = NOT_FOUND;
+        this.extension = NOT_FOUND;
+        this.colonInName = false;
+        this.nullByte = false;
+
+        if (fileName == null) {
+            this.prefixLength = NOT_FOUND;
+            return this;
+        }
+
+        int firstSeparatorFrom1 = NOT_FOUND;
+        int firstSeparatorFrom2 = NOT_FOUND;
+        final int len = fileName.length();
+        for (int i = 0; i < len; i++) {
+            final char ch = fileName.charAt(i);
+            if (ch == '/' || ch == '\\') {
+                if (firstSeparatorFrom1 == NOT_FOUND && i >= 1)
+                    firstSeparatorFrom1 = i;
+                if (firstSeparatorFrom2 == NOT_FOUND && i >= 2)
+                    firstSeparatorFrom2 = i;
+                lastSeparator = i;
+                extension = NOT_FOUND;
+                colonInName = false;
+            }
+            else if (ch == '.') {
+                extension = i;
+            }
+            else if (ch == ':') {
+                colonInName = true;
+            }
+            else if (ch == 0) {
+                nullByte = true;
+            }
+        }
+        this.prefixLength = computePrefixLength(fileName, firstSeparatorFrom1, firstSeparatorFrom2);
+        return this;
+    }
+
+
+    // Indexes
+    //--------------------------------------------------------------------------
+
+    /**
+     * @return the file name currently decomposed, may be null.
+     */
+    public @Nullable CharSequence fileName() {
+        return fileName;
+    }
+
+    /**
+     * @see FilenameUtils#getPrefixLength(String)
+     *
+     * @return the length of the prefix, -1 if invalid or null
+     */
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    /**
+     * @see FilenameUtils#indexOfLastSeparator(String)
+     *
+     * @return the index of the last separator character, or -1 if there is no such character
+     */
+    public int indexOfLastSeparator() {
+        return lastSeparator;
+    }
+
+    /**
+     * @see FilenameUtils#indexOfExtension(String)
+     *
+     * @return the index of the last extension separator character, or -1 if there is no such character
+     * @throws IllegalArgumentException <b>Windows only:</b> the file name is the identifier of an Alternate Data Stream
+     */
+    public int indexOfExtension() throws IllegalArgumentException {
+        if (SYSTEM_WINDOWS && colonInName) {
+            throw new IllegalArgumentException("NTFS ADS separator (':') in file name is forbidden.");
+        }
+        return extension;
+    }
+
+    /**
+     * @return the index of the first character of the name.
+     */
+    public int nameStart() {
+        return lastSeparator + 1;
+    }
+
+    /**
+     * @return the index after the last character of the base name.
+     * @throws IllegalArgumentException <b>Windows only:</b> the file name is the identifier of an Alternate Data Stream
+     */
+    public int baseNameEnd() {
+        final int index = indexOfExtension();
+        return index == NOT_FOUND ? length() : index;
+    }
+
+
+    // Components
+    //--------------------------------------------------------------------------
+
+    /**
+     * @see FilenameUtils#getPrefix(String)
+     *
+     * @return the prefix of the file, null if invalid
+     */
+    public @Nullable String getPrefix() {
+        if (fileName == null || prefixLength < 0) {
+            return null;
+        }
+        if (prefixLength > fileName.length()) {
+            failIfNullBytePresent(0, fileName.length());
+            return fileName.toString() + '/';
+        }
+        failIfNullBytePresent(0, prefixLength);
+        return substring(0, prefixLength);
+    }
+
+    /**
+     * @see FilenameUtils#getPath(String)
+     *
+     * @return the path of the file, an empty string if none exists, null if invalid
+     */
+    public @Nullable String getPath() {
+        return doGetPath(1);
+    }
+
+    /**
+     * @see FilenameUtils#getPathNoEndSeparator(String)
+     *
+     * @return the path of the file, an empty string if none exists, null if invalid
+     */
+    public @Nullable String getPathNoEndSeparator() {
+        return doGetPath(0);
+    }
+
+    /**
+     * @see FilenameUtils#getFullPath(String)
+     *
+     * @return the path of the file, an empty string if none exists, null if invalid
+     */
+    public @Nullable String getFullPath() {
+        return doGetFullPath(true);
+    }
+
+    /**
+     * @see FilenameUtils#getFullPathNoEndSeparator(String)
+     *
+     * @return the path of the file, an empty string if none exists, null if invalid
+     */
+    public @Nullable String getFullPathNoEndSeparator() {
+        return doGetFullPath(false);
+    }
+
+    /**
+     * @see FilenameUtils#getName(String)
+     *
+     * @return the name of the file without the path, or an empty string if none exists
+     */
+    public @Nullable String getName() {
+        if (fileName == null) {
+            return null;
+        }
+        failIfNullBytePresent(0, fileName.length());
+        return substring(nameStart(), fileName.length());
+    }
+
+    /**
+     * @see FilenameUtils#getBaseName(String)
+     *
+     * @return the name of the file without the path and the extension, or an empty string if none exists
+     */
+    public @Nullable String getBaseName() {
+        if (fileName == null) {
+            return null;
+        }
+        failIfNullBytePresent(0, fileName.length());
+        return substring(nameStart(), baseNameEnd());
+    }
+
+    /**
+     * @see FilenameUtils#getExtension(String)
+     *
+     * @return the extension of the file or an empty string if none exists, null if the file name is null
+     */
+    public @Nullable String getExtension() {
+        if (fileName == null) {
+            return null;
+        }
+        final int index = indexOfExtension();
+        if (index == NOT_FOUND) {
+            return "";
+        }
+        return substring(index + 1, fileName.length());
+    }
+
+    /**
+     * Check the extension without building a string.
+     *
+     * @see FilenameUtils#isExtension(String, String)
+     *
+     * @param extension the extension to check for, null or empty checks for no extension
+     *
+     * @return true if the file name has the specified extension
+     */
+    public boolean isExtension(@Nullable String extension) {
+        if (fileName == null) {
+            return false;
+        }
+        failIfNullBytePresent(0, fileName.length());
+
+        final int index = indexOfExtension();
+        if (extension == null || extension.isEmpty()) {
+            return index == NOT_FOUND;
+        }
+        final int start = index == NOT_FOUND ? fileName.length() : index + 1;
+        if (fileName.length() - start != extension.length()) {
+            return false;
+        }
+        for (int i = 0; i < extension.length(); i++) {
+            if (fileName.charAt(start + i) != extension.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(fileName);
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    private int length() {
+        return fileName == null ? 0 : fileName.length();
+    }
+
+    private @Nullable String doGetPath(final int separatorAdd) {
+        if (fileName == null || prefixLength < 0) {
+            return null;
+        }
+        final int endIndex = lastSeparator + separatorAdd;
+        if (prefixLength >= fileName.length() || lastSeparator < 0 || prefixLength >= endIndex) {
+            return "";
+        }
+        failIfNullBytePresent(prefixLength, endIndex);
+        return substring(prefixLength, endIndex);
+    }
+
+    private @Nullable String doGetFullPath(final boolean includeSeparator) {
+        if (fileName == null || prefixLength < 0) {
+            return null;
+        }
+        if (prefixLength >= fileName.length()) {
+            if (includeSeparator) {
+                return getPrefix();  // add end slash if necessary
+            }
+            return fileName.toString();
+        }
+        if (lastSeparator < 0) {
+            return substring(0, prefixLength);
+        }
+        int end = lastSeparator + (includeSeparator ? 1 : 0);
+        if (end == 0) {
+            end++;
+        }
+        return substring(0, end);
+    }
+
+    private String substring(final int start, final int end) {
+        return fileName == null ? "" : fileName.subSequence(start, end).toString();
+    }
+
+    private void failIfNullBytePresent(final int start, final int end) {
+        if (!nullByte || fileName == null) {
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            if (fileName.charAt(i) == 0) {
+                throw new IllegalArgumentException("Null byte present in file/path name. There are no " +
+                        "known legitimate use cases for such data, but several injection attacks may use it");
+            }
+        }
+    }
+
+    /**
+     * Same rules as {@link FilenameUtils#getPrefixLength(String)}, using the separators found during the scan.
+     */
+    private static int computePrefixLength(final CharSequence fileName, final int firstSeparatorFrom1, final int firstSeparatorFrom2) {
+        final int len = fileName.length();
+        if (len == 0) {
+            return 0;
+        }
+        char ch0 = fileName.charAt(0);
+        if (ch0 == ':') {
+            return NOT_FOUND;
+        }
+        if (len == 1) {
+            if (ch0 == '~') {
+                return 2;  // return a length greater than the input
+            }
+            return isSeparator(ch0) ? 1 : 0;
+        }
+        if (ch0 == '~') {
+            if (firstSeparatorFrom1 == NOT_FOUND) {
+                return len + 1;  // return a length greater than the input
+            }
+            return firstSeparatorFrom1 + 1;
+        }
+        final char ch1 = fileName.charAt(1);
+        if (ch1 == ':') {
+            ch0 = Character.toUpperCase(ch0);
+            if (ch0 >= 'A' && ch0 <= 'Z') {
+                if (len == 2 || !isSeparator(fileName.charAt(2))) {
+                    return 2;
+                }
+                return 3;
+            } else if (ch0 == '/') {
+                return 1;
+            }
+            return NOT_FOUND;
+
+        } else if (isSeparator(ch0) && isSeparator(ch1)) {
+            if (firstSeparatorFrom2 == NOT_FOUND || firstSeparatorFrom2 == 2) {
+                return NOT_FOUND;
+            }
+            // UNC paths are rare: let FilenameUtils validate the host name
+            return FilenameUtils.getPrefixLength(fileName.subSequence(0, firstSeparatorFrom2 + 1).toString());
+        } else {
+            return isSeparator(ch0) ? 1 : 0;
+        }
+    }
+
+    private static boolean isSeparator(final char ch) {
+        return ch == '/' || ch == '\\';
+    }
+}
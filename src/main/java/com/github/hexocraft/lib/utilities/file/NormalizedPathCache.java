@@ -0,0 +1,284 @@
+package com.github.hexocraft.lib.utilities.file;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.apache.commons.io.FilenameUtils;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * <p>Bounded LRU cache in front of {@link FilenameUtils#normalize(String)} and {@link FilenameUtils#concat(String, String)}.
+ *
+ * <p>Results are cached per input, separator and trailing separator mode. Each normalized path is also stored as its
+ * own key, so equal results share a single {@link String} instance and looking up an already normalized path is a hit.
+ *
+ * <p>The hit and miss counters can be used to check whether the cache pays off.
+ *
+ * <p>This class is thread safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class NormalizedPathCache {
+
+    /**
+     * Marker stored for the invalid paths, as {@link FilenameUtils#normalize(String)} returns null for them.
+     */
+    private static final String INVALID = new String("");
+
+    /**
+     * Maximum number of entries.
+     */
+    private final int maximumSize;
+
+    /**
+     * Cached results, in access order.
+     */
+    private final @NonNull LinkedHashMap<Key, String> cache;
+
+    /**
+     * Number of lookups answered by the cache.
+     */
+    private long hits;
+
+    /**
+     * Number of lookups that had to normalize the path.
+     */
+    private long misses;
+
+
+    /**
+     * @param maximumSize maximum number of entries (must be positive).
+     */
+    public NormalizedPathCache(@Positive int maximumSize) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("Invalid cache size: " + maximumSize);
+
+        this.maximumSize = maximumSize;
+        this.cache = new LinkedHashMap<Key, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > NormalizedPathCache.this.maximumSize;
+            }
+        };
+    }
+
+
+    // Normalization
+    //--------------------------------------------------------------------------
+
+    /**
+     * @see FilenameUtils#normalize(String)
+     *
+     * @param fileName the fileName to normalize, null returns null
+     *
+     * @return the normalized fileName, or null if invalid
+     */
+    public @Nullable String normalize(@Nullable String fileName) {
+        return lookup(fileName, File.separatorChar, true);
+    }
+
+    /**
+     * @see FilenameUtils#normalize(String, boolean)
+     *
+     * @param fileName the fileName to normalize, null returns null
+     * @param unixSeparator true if a unix separator should be used or false if a windows separator should be used.
+     *
+     * @return the normalized fileName, or null if invalid
+     */
+    public @Nullable String normalize(@Nullable String fileName, boolean unixSeparator) {
+        return lookup(fileName, unixSeparator ? '/' : '\\', true);
+    }
+
+    /**
+     * @see FilenameUtils#normalizeNoEndSeparator(String)
+     *
+     * @param fileName the fileName to normalize, null returns null
+     *
+     * @return the normalized fileName, or null if invalid
+     */
+    public @Nullable String normalizeNoEndSeparator(@Nullable String fileName) {
+        return lookup(fileName, File.separatorChar, false);
+    }
+
+    /**
+     * @see FilenameUtils#normalizeNoEndSeparator(String, boolean)
+     *
+     * @param fileName the fileName to normalize, null returns null
+     * @param unixSeparator true if a unix separator should be used or false if a windows separator should be used.
+     *
+     * @return the normalized fileName, or null if invalid
+     */
+    public @Nullable String normalizeNoEndSeparator(@Nullable String fileName, boolean unixSeparator) {
+        return lookup(fileName, unixSeparator ? '/' : '\\', false);
+    }
+
+    /**
+     * @see FilenameUtils#concat(String, String)
+     *
+     * @param basePath the base path to attach to, always treated as a path
+     * @param fullFileNameToAdd the fileName (or path) to attach to the base
+     *
+     * @return the concatenated path, or null if invalid
+     */
+    public @Nullable String concat(@Nullable String basePath, @Nullable String fullFileNameToAdd) {
+        final int prefix = FilenameUtils.getPrefixLength(fullFileNameToAdd);
+        if (prefix < 0)
+            return null;
+        if (prefix > 0)
+            return normalize(fullFileNameToAdd);
+        if (basePath == null)
+            return null;
+        if (basePath.isEmpty())
+            return normalize(fullFileNameToAdd);
+
+        final char ch = basePath.charAt(basePath.length() - 1);
+        if (ch == '/' || ch == '\\')
+            return normalize(basePath + fullFileNameToAdd);
+        return normalize(basePath + '/' + fullFileNameToAdd);
+    }
+
+
+    // Statistics
+    //--------------------------------------------------------------------------
+
+    /**
+     * @return the number of lookups answered by the cache.
+     */
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups that had to normalize the path.
+     */
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    /**
+     * @return the ratio of lookups answered by the cache, 0 if there was no lookup yet.
+     */
+    public synchronized double hitRate() {
+        final long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * @return the current number of entries.
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Remove all the entries and reset the statistics.
+     */
+    public synchronized void clear() {
+        cache.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    private @Nullable String lookup(@Nullable String fileName, char separator, boolean keepSeparator) {
+        if (fileName == null)
+            return null;
+
+        final Key key = new Key(fileName, separator, keepSeparator);
+        synchronized (this) {
+            final String cached = cache.get(key);
+            if (cached != null) {
+                hits++;
+                return cached == INVALID ? null : cached;
+            }
+            misses++;
+        }
+
+        // Normalize outside of the lock
+        final String normalized = doNormalize(fileName, separator, keepSeparator);
+
+        synchronized (this) {
+            if (normalized == null) {
+                cache.put(key, INVALID);
+                return null;
+            }
+
+            // Normalization is idempotent: share the instance already stored for the same result
+            final Key normalizedKey = new Key(normalized, separator, keepSeparator);
+            String shared = cache.get(normalizedKey);
+            if (shared == null || shared == INVALID) {
+                shared = normalized;
+                cache.put(normalizedKey, shared);
+            }
+            cache.put(key, shared);
+            return shared;
+        }
+    }
+
+    private static @Nullable String doNormalize(@NonNull String fileName, char separator, boolean keepSeparator) {
+        if (separator == File.separatorChar) {
+            return keepSeparator ? FilenameUtils.normalize(fileName) : FilenameUtils.normalizeNoEndSeparator(fileName);
+        }
+        final boolean unixSeparator = separator == '/';
+        return keepSeparator ? FilenameUtils.normalize(fileName, unixSeparator) : FilenameUtils.normalizeNoEndSeparator(fileName, unixSeparator);
+    }
+
+    /**
+     * Cache key.
+     */
+    private static final class Key {
+
+        private final @NonNull String fileName;
+        private final char separator;
+        private final boolean keepSeparator;
+
+        private Key(@NonNull String fileName, char separator, boolean keepSeparator) {
+            this.fileName = fileName;
+            this.separator = separator;
+            this.keepSeparator = keepSeparator;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object other) {
+            if (this == other)
+                return true;
+            if (other == null || getClass() != other.getClass())
+                return false;
+
+            Key key = (Key) other;
+            return separator == key.separator && keepSeparator == key.keepSeparator && fileName.equals(key.fileName);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = fileName.hashCode();
+            result = 31 * result + separator;
+            result = 31 * result + (keepSeparator ? 1 : 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.github.hexocraft.lib.utilities.file;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * <p>{@link FilenameUtils} operations working in place on UTF-8 encoded file names.
+ *
+ * <p>File names read from zip archives or NIO buffers can be filtered without decoding them to {@link String}.
+ * The results are the same as the {@link FilenameUtils} methods on the decoded string:
+ *
+ * <ul>
+ * <li>{@link ByteBuffer} arguments are read between their position and limit, which are left untouched.
+ * <li>Returned {@link ByteBuffer} are views sharing the content of the argument.
+ * <li>Returned indexes are absolute indexes in the buffer or array.
+ * </ul>
+ *
+ * <p>Separators, dots and wildcards are ASCII, so they can never be mistaken for a byte of a multi-byte sequence.
+ * Case insensitive matching only folds ASCII letters.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Utf8FilenameUtils {
+
+    private static final int NOT_FOUND = -1;
+
+    private static final byte UNIX_SEPARATOR = '/';
+    private static final byte WINDOWS_SEPARATOR = '\\';
+    private static final byte EXTENSION_SEPARATOR = '.';
+
+    private static final boolean SYSTEM_WINDOWS = File.separatorChar == '\\';
+
+
+    private Utf8FilenameUtils() {
+        throw new IllegalAccessError("This is a private constructor");
+    }
+
+
+    // Indexes
+    //--------------------------------------------------------------------------
+
+    /**
+     * @see FilenameUtils#getPrefixLength(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return the length of the prefix, -1 if invalid
+     */
+    public static int getPrefixLength(@NonNull ByteBuffer fileName) {
+        final int from = fileName.position();
+        final int len = fileName.limit() - from;
+        if (len == 0) {
+            return 0;
+        }
+        byte ch0 = fileName.get(from);
+        if (ch0 == ':') {
+            return NOT_FOUND;
+        }
+        if (len == 1) {
+            if (ch0 == '~') {
+                return 2;  // return a length greater than the input
+            }
+            return isSeparator(ch0) ? 1 : 0;
+        }
+        if (ch0 == '~') {
+            final int pos = indexOfSeparator(fileName, from + 1);
+            if (pos == NOT_FOUND) {
+                return len + 1;  // return a length greater than the input
+            }
+            return pos - from + 1;
+        }
+        final byte ch1 = fileName.get(from + 1);
+        if (ch1 == ':') {
+            ch0 = toUpperCase(ch0);
+            if (ch0 >= 'A' && ch0 <= 'Z') {
+                if (len == 2 || !isSeparator(fileName.get(from + 2))) {
+                    return 2;
+                }
+                return 3;
+            } else if (ch0 == UNIX_SEPARATOR) {
+                return 1;
+            }
+            return NOT_FOUND;
+
+        } else if (isSeparator(ch0) && isSeparator(ch1)) {
+            final int pos = indexOfSeparator(fileName, from + 2);
+            if (pos == NOT_FOUND || pos == from + 2) {
+                return NOT_FOUND;
+            }
+            // Host names are ASCII: hand the (short and rare) UNC prefix over to FilenameUtils
+            for (int i = from + 2; i < pos; i++) {
+                if (fileName.get(i) < 0) {
+                    return NOT_FOUND;
+                }
+            }
+            final byte[] prefix = new byte[pos - from + 1];
+            for (int i = 0; i < prefix.length; i++) {
+                prefix[i] = fileName.get(from + i);
+            }
+            return FilenameUtils.getPrefixLength(new String(prefix, StandardCharsets.ISO_8859_1));
+        } else {
+            return isSeparator(ch0) ? 1 : 0;
+        }
+    }
+
+    /**
+     * @see FilenameUtils#getPrefixLength(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return the length of the prefix, -1 if invalid
+     */
+    public static int getPrefixLength(byte @NonNull [] fileName) {
+        return getPrefixLength(ByteBuffer.wrap(fileName));
+    }
+
+    /**
+     * @see FilenameUtils#indexOfLastSeparator(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return the index of the last separator character, or -1 if there is no such character
+     */
+    public static int indexOfLastSeparator(@NonNull ByteBuffer fileName) {
+        final int from = fileName.position();
+        for (int i = fileName.limit() - 1; i >= from; i--) {
+            if (isSeparator(fileName.get(i))) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * @see FilenameUtils#indexOfLastSeparator(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return the index of the last separator character, or -1 if there is no such character
+     */
+    public static int indexOfLastSeparator(byte @NonNull [] fileName) {
+        return indexOfLastSeparator(ByteBuffer.wrap(fileName));
+    }
+
+    /**
+     * @see FilenameUtils#indexOfExtension(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return the index of the last extension separator character, or -1 if there is no such character
+     * @throws IllegalArgumentException <b>Windows only:</b> the fileName is the identifier of an Alternate Data Stream
+     */
+    public static int indexOfExtension(@NonNull ByteBuffer fileName) throws IllegalArgumentException {
+        final int from = fileName.position();
+        int extensionPos = NOT_FOUND;
+        for (int i = fileName.limit() - 1; i >= from; i--) {
+            final byte ch = fileName.get(i);
+            if (isSeparator(ch)) {
+                break;
+            }
+            if (SYSTEM_WINDOWS && ch == ':') {
+                throw new IllegalArgumentException("NTFS ADS separator (':') in file name is forbidden.");
+            }
+            if (ch == EXTENSION_SEPARATOR && extensionPos == NOT_FOUND) {
+                extensionPos = i;
+                if (!SYSTEM_WINDOWS) {
+                    break;
+                }
+            }
+        }
+        return extensionPos;
+    }
+
+    /**
+     * @see FilenameUtils#indexOfExtension(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return the index of the last extension separator character, or -1 if there is no such character
+     * @throws IllegalArgumentException <b>Windows only:</b> the fileName is the identifier of an Alternate Data Stream
+     */
+    public static int indexOfExtension(byte @NonNull [] fileName) throws IllegalArgumentException {
+        return indexOfExtension(ByteBuffer.wrap(fileName));
+    }
+
+
+    // Components
+    //--------------------------------------------------------------------------
+
+    /**
+     * @see FilenameUtils#getName(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return a view on the name of the file without the path
+     * @throws IllegalArgumentException if the fileName contains a null byte
+     */
+    public static @NonNull ByteBuffer getName(@NonNull ByteBuffer fileName) {
+        failIfNullBytePresent(fileName);
+        final int index = indexOfLastSeparator(fileName);
+        return view(fileName, index == NOT_FOUND ? fileName.position() : index + 1, fileName.limit());
+    }
+
+    /**
+     * @see FilenameUtils#getName(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return a view on the name of the file without the path
+     * @throws IllegalArgumentException if the fileName contains a null byte
+     */
+    public static @NonNull ByteBuffer getName(byte @NonNull [] fileName) {
+        return getName(ByteBuffer.wrap(fileName));
+    }
+
+    /**
+     * @see FilenameUtils#getBaseName(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return a view on the name of the file without the path and the extension
+     * @throws IllegalArgumentException if the fileName contains a null byte
+     */
+    public static @NonNull ByteBuffer getBaseName(@NonNull ByteBuffer fileName) {
+        final ByteBuffer name = getName(fileName);
+        final int index = indexOfExtension(name);
+        if (index != NOT_FOUND) {
+            name.limit(index);
+        }
+        return name;
+    }
+
+    /**
+     * @see FilenameUtils#getBaseName(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return a view on the name of the file without the path and the extension
+     * @throws IllegalArgumentException if the fileName contains a null byte
+     */
+    public static @NonNull ByteBuffer getBaseName(byte @NonNull [] fileName) {
+        return getBaseName(ByteBuffer.wrap(fileName));
+    }
+
+    /**
+     * @see FilenameUtils#getExtension(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return a view on the extension of the file, empty if none exists
+     * @throws IllegalArgumentException <b>Windows only:</b> the fileName is the identifier of an Alternate Data Stream
+     */
+    public static @NonNull ByteBuffer getExtension(@NonNull ByteBuffer fileName) {
+        final int index = indexOfExtension(fileName);
+        if (index == NOT_FOUND) {
+            return view(fileName, fileName.limit(), fileName.limit());
+        }
+        return view(fileName, index + 1, fileName.limit());
+    }
+
+    /**
+     * @see FilenameUtils#getExtension(String)
+     *
+     * @param fileName the UTF-8 encoded fileName
+     *
+     * @return a view on the extension of the file, empty if none exists
+     * @throws IllegalArgumentException <b>Windows only:</b> the fileName is the identifier of an Alternate Data Stream
+     */
+    public static @NonNull ByteBuffer getExtension(byte @NonNull [] fileName) {
+        return getExtension(ByteBuffer.wrap(fileName));
+    }
+
+
+    // Wildcard
+    //--------------------------------------------------------------------------
+
+    /**
+     * Checks a UTF-8 encoded fileName to see if it matches the specified wildcard matcher.
+     *
+     * <p>'?' matches exactly one code point and '*' matches zero or more code points.
+     * Unlike {@link FilenameUtils#wildcardMatch(String, String, IOCase)}, the sequence "*?" is supported.
+     *
+     * @param fileName the UTF-8 encoded fileName to match on
+     * @param wildcardMatcher the UTF-8 encoded wildcard string to match against
+     * @param caseSensitivity what case sensitivity rule to use, null means case-sensitive
+     *
+     * @return true if the fileName matches the wildcard string
+     */
+    public static boolean wildcardMatch(@NonNull ByteBuffer fileName, byte @NonNull [] wildcardMatcher, @Nullable IOCase caseSensitivity) {
+        final boolean sensitive = caseSensitivity == null || caseSensitivity.isCaseSensitive();
+        final int textEnd = fileName.limit();
+        final int wcsEnd = wildcardMatcher.length;
+
+        int textIdx = fileName.position();
+        int wcsIdx = 0;
+        int starWcsIdx = NOT_FOUND;
+        int starTextIdx = NOT_FOUND;
+
+        while (textIdx < textEnd) {
+            final byte wc = wcsIdx < wcsEnd ? wildcardMatcher[wcsIdx] : 0;
+            if (wcsIdx < wcsEnd && wc == '*') {
+                // remember the star and first try to match it with nothing
+                starWcsIdx = wcsIdx++;
+                starTextIdx = textIdx;
+            } else if (wcsIdx < wcsEnd && wc == '?') {
+                textIdx = nextCodePoint(fileName, textIdx);
+                wcsIdx++;
+            } else if (wcsIdx < wcsEnd && equals(wc, fileName.get(textIdx), sensitive)) {
+                textIdx++;
+                wcsIdx++;
+            } else if (starWcsIdx != NOT_FOUND) {
+                // let the last star swallow one more code point
+                starTextIdx = nextCodePoint(fileName, starTextIdx);
+                textIdx = starTextIdx;
+                wcsIdx = starWcsIdx + 1;
+            } else {
+                return false;
+            }
+        }
+        while (wcsIdx < wcsEnd && wildcardMatcher[wcsIdx] == '*') {
+            wcsIdx++;
+        }
+        return wcsIdx == wcsEnd;
+    }
+
+    /**
+     * @see #wildcardMatch(ByteBuffer, byte[], IOCase)
+     *
+     * @param fileName the UTF-8 encoded fileName to match on
+     * @param wildcardMatcher the wildcard string to match against
+     * @param caseSensitivity what case sensitivity rule to use, null means case-sensitive
+     *
+     * @return true if the fileName matches the wildcard string
+     */
+    public static boolean wildcardMatch(@NonNull ByteBuffer fileName, @NonNull String wildcardMatcher, @Nullable IOCase caseSensitivity) {
+        return wildcardMatch(fileName, wildcardMatcher.getBytes(StandardCharsets.UTF_8), caseSensitivity);
+    }
+
+    /**
+     * @see #wildcardMatch(ByteBuffer, byte[], IOCase)
+     *
+     * @param fileName the UTF-8 encoded fileName to match on
+     * @param wildcardMatcher the wildcard string to match against
+     *
+     * @return true if the fileName matches the wildcard string, always testing case-sensitive
+     */
+    public static boolean wildcardMatch(@NonNull ByteBuffer fileName, @NonNull String wildcardMatcher) {
+        return wildcardMatch(fileName, wildcardMatcher, IOCase.SENSITIVE);
+    }
+
+    /**
+     * @see #wildcardMatch(ByteBuffer, byte[], IOCase)
+     *
+     * @param fileName the UTF-8 encoded fileName to match on
+     * @param wildcardMatcher the UTF-8 encoded wildcard string to match against
+     * @param caseSensitivity what case sensitivity rule to use, null means case-sensitive
+     *
+     * @return true if the fileName matches the wildcard string
+     */
+    public static boolean wildcardMatch(byte @NonNull [] fileName, byte @NonNull [] wildcardMatcher, @Nullable IOCase caseSensitivity) {
+        return wildcardMatch(ByteBuffer.wrap(fileName), wildcardMatcher, caseSensitivity);
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    private static boolean isSeparator(final byte ch) {
+        return ch == UNIX_SEPARATOR || ch == WINDOWS_SEPARATOR;
+    }
+
+    private static byte toUpperCase(final byte ch) {
+        return ch >= 'a' && ch <= 'z' ? (byte) (ch - ('a' - 'A')) : ch;
+    }
+
+    private static boolean equals(final byte ch1, final byte ch2, final boolean sensitive) {
+        return ch1 == ch2 || !sensitive && toUpperCase(ch1) == toUpperCase(ch2);
+    }
+
+    private static int indexOfSeparator(@NonNull ByteBuffer fileName, int from) {
+        for (int i = from; i < fileName.limit(); i++) {
+            if (isSeparator(fileName.get(i))) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Skip the UTF-8 continuation bytes (10xxxxxx) following the byte at the given index.
+     */
+    private static int nextCodePoint(@NonNull ByteBuffer fileName, int index) {
+        index++;
+        while (index < fileName.limit() && (fileName.get(index) & 0xC0) == 0x80) {
+            index++;
+        }
+        return index;
+    }
+
+    private static void failIfNullBytePresent(@NonNull ByteBuffer fileName) {
+        for (int i = fileName.position(); i < fileName.limit(); i++) {
+            if (fileName.get(i) == 0) {
+                throw new IllegalArgumentException("Null byte present in file/path name. There are no " +
+                        "known legitimate use cases for such data, but several injection attacks may use it");
+            }
+        }
+    }
+
+    private static @NonNull ByteBuffer view(@NonNull ByteBuffer fileName, int from, int to) {
+        final ByteBuffer view = fileName.duplicate();
+        view.limit(to);
+        view.position(from);
+        return view;
+    }
+}
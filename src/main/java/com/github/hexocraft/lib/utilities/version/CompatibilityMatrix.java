@@ -0,0 +1,261 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+
+/**
+ * <p>Compatibility of plugins (rows) with candidate versions (columns), e.g. server versions for a network upgrade.
+ *
+ * <p>Each plugin declares a {@link VersionConstraint}, compiled once. The rows are evaluated in parallel, and the
+ * result is stored as one bit per cell, each row starting on a new 64 bits word.
+ *
+ * <pre>
+ * Map&lt;String, VersionConstraint&gt; constraints = new LinkedHashMap&lt;&gt;();
+ * constraints.put("WorldEdit", VersionConstraint.parse("&gt;=1.8 &lt;1.13"));
+ * CompatibilityMatrix matrix = CompatibilityMatrix.compute(constraints, serverVersions);
+ * List&lt;Version&gt; targets = matrix.versions(matrix.compatibleWithAll());
+ * </pre>
+ *
+ * <p>A matrix is immutable and thread safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class CompatibilityMatrix {
+
+    /**
+     * Plugin names, in row order.
+     */
+    private final @NonNull List<String> plugins;
+
+    /**
+     * Candidate versions, in column order.
+     */
+    private final @NonNull List<Version> versions;
+
+    /**
+     * Number of 64 bits words per row.
+     */
+    private final int rowWords;
+
+    /**
+     * Cells, row by row.
+     */
+    private final @NonNull long[] bits;
+
+
+    private CompatibilityMatrix(@NonNull List<String> plugins, @NonNull List<Version> versions) {
+        this.plugins = Collections.unmodifiableList(plugins);
+        this.versions = Collections.unmodifiableList(versions);
+        this.rowWords = (versions.size() + 63) >>> 6;
+        this.bits = new long[plugins.size() * rowWords];
+    }
+
+    /**
+     * Evaluate the constraints of plugins against candidate versions.
+     *
+     * @param constraints constraint of each plugin, rows being in the iteration order of the map
+     * @param versions candidate versions, in column order
+     *
+     * @return the matrix
+     */
+    public static @NonNull CompatibilityMatrix compute(@NonNull Map<String, VersionConstraint> constraints, @NonNull List<Version> versions) {
+        final CompatibilityMatrix matrix = new CompatibilityMatrix(new ArrayList<>(constraints.keySet()), new ArrayList<>(versions));
+        final VersionConstraint[] rows = constraints.values().toArray(new VersionConstraint[0]);
+        final Version[] columns = versions.toArray(new Version[0]);
+
+        // Rows do not share words: they can be filled concurrently
+        IntStream.range(0, rows.length).parallel().forEach(row -> {
+            final VersionConstraint constraint = rows[row];
+            final int offset = row * matrix.rowWords;
+            for (int column = 0; column < columns.length; column++) {
+                if (constraint.test(columns[column]))
+                    matrix.bits[offset + (column >>> 6)] |= 1L << column;
+            }
+        });
+        return matrix;
+    }
+
+
+    // Queries
+    //--------------------------------------------------------------------------
+
+    /**
+     * @return the plugin names, in row order
+     */
+    public @NonNull List<String> plugins() {
+        return plugins;
+    }
+
+    /**
+     * @return the candidate versions, in column order
+     */
+    public @NonNull List<Version> versions() {
+        return versions;
+    }
+
+    /**
+     * @param row row index
+     * @param column column index
+     *
+     * @return true if the plugin of the row is compatible with the version of the column
+     */
+    public boolean isCompatible(@NonNegative int row, @NonNegative int column) {
+        checkIndex(row, plugins.size());
+        checkIndex(column, versions.size());
+        return (bits[row * rowWords + (column >>> 6)] & (1L << column)) != 0;
+    }
+
+    /**
+     * @param row row index
+     *
+     * @return the columns of the versions compatible with the plugin of the row
+     */
+    public @NonNull BitSet row(@NonNegative int row) {
+        checkIndex(row, plugins.size());
+        final long[] words = new long[rowWords];
+        System.arraycopy(bits, row * rowWords, words, 0, rowWords);
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * @param plugin plugin name
+     *
+     * @return the columns of the versions compatible with the plugin
+     *
+     * @throws IllegalArgumentException if the plugin is not a row of the matrix
+     */
+    public @NonNull BitSet row(@NonNull String plugin) {
+        final int row = plugins.indexOf(plugin);
+        if (row < 0)
+            throw new IllegalArgumentException("Unknown plugin: " + plugin);
+        return row(row);
+    }
+
+    /**
+     * @param column column index
+     *
+     * @return the rows of the plugins compatible with the version of the column
+     */
+    public @NonNull BitSet column(@NonNegative int column) {
+        checkIndex(column, versions.size());
+        final BitSet rows = new BitSet(plugins.size());
+        final int word = column >>> 6;
+        final long mask = 1L << column;
+        for (int row = 0; row < plugins.size(); row++) {
+            if ((bits[row * rowWords + word] & mask) != 0)
+                rows.set(row);
+        }
+        return rows;
+    }
+
+    /**
+     * @return the columns of the versions compatible with every plugin
+     */
+    public @NonNull BitSet compatibleWithAll() {
+        final long[] words = new long[rowWords];
+        for (int word = 0; word < rowWords; word++) {
+            // Bits after the last column stay cleared
+            long and = word == rowWords - 1 && (versions.size() & 63) != 0 ? (1L << versions.size()) - 1 : -1L;
+            for (int row = 0; row < plugins.size(); row++) {
+                and &= bits[row * rowWords + word];
+            }
+            words[word] = and;
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * @param columns column indexes
+     *
+     * @return the versions of the columns
+     */
+    public @NonNull List<Version> versions(@NonNull BitSet columns) {
+        final List<Version> selected = new ArrayList<>(columns.cardinality());
+        for (int column = columns.nextSetBit(0); column >= 0; column = columns.nextSetBit(column + 1)) {
+            selected.add(versions.get(column));
+        }
+        return selected;
+    }
+
+    /**
+     * @param rows row indexes
+     *
+     * @return the plugin names of the rows
+     */
+    public @NonNull List<String> plugins(@NonNull BitSet rows) {
+        final List<String> selected = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            selected.add(plugins.get(row));
+        }
+        return selected;
+    }
+
+
+    // Export
+    //--------------------------------------------------------------------------
+
+    /**
+     * @return a copy of the cells, row by row, each row starting on a new word: bit <code>column % 64</code> of word
+     * <code>row * ((columns + 63) / 64) + column / 64</code>
+     */
+    public @NonNull long[] toLongArray() {
+        return bits.clone();
+    }
+
+    /**
+     * Write the matrix as CSV: a header line with the versions, then one line per plugin, 1 for compatible.
+     *
+     * @param out output to write to
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeCsv(@NonNull Appendable out) throws IOException {
+        out.append("plugin");
+        for (Version version : versions) {
+            out.append(',').append(version.toString());
+        }
+        out.append('\n');
+        for (int row = 0; row < plugins.size(); row++) {
+            out.append(plugins.get(row));
+            for (int column = 0; column < versions.size(); column++) {
+                out.append(',').append(isCompatible(row, column) ? '1' : '0');
+            }
+            out.append('\n');
+        }
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+}
@@ -0,0 +1,262 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import com.github.hexocraft.lib.utilities.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+
+/**
+ * <p>Run the migration steps needed to bring data, like a configuration, from a stored version to the current one.
+ *
+ * <p>Steps are registered against the version introducing them, in a {@link SemVerMap}. The chain of steps between two
+ * versions is found with two binary searches: the steps of the versions greater than the stored version, up to the
+ * current version included, in ascending order of versions, then in registration order.
+ *
+ * <pre>
+ * MigrationRunner&lt;ConfigurationSection&gt; migrations = new MigrationRunner&lt;ConfigurationSection&gt;()
+ *         .register(new Version(1, 2, 0), "Rename messages", config -&gt; ...)
+ *         .register(new Version(2, 0, 0), "New storage section", config -&gt; ...);
+ * config = migrations.run(config, storedVersion, pluginVersion);
+ * </pre>
+ *
+ * <p>The time spent in each step is reported with {@link Logger#logInfo(String)}. Register the steps before sharing
+ * the runner: running is thread safe, registering is not.
+ *
+ * @param <T> type of the migrated data
+ */
+@SuppressWarnings("WeakerAccess")
+public final class MigrationRunner<T> {
+
+    /**
+     * A named migration step.
+     */
+    private static final class Step<T> {
+        final @NonNull SemVer version;
+        final @NonNull String name;
+        final @NonNull UnaryOperator<T> operator;
+
+        Step(@NonNull SemVer version, @NonNull String name, @NonNull UnaryOperator<T> operator) {
+            this.version = version;
+            this.name = name;
+            this.operator = operator;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + version + ")";
+        }
+    }
+
+    /**
+     * Steps of each version, in registration order.
+     */
+    private final @NonNull SemVerMap<List<Step<T>>> steps = new SemVerMap<>();
+
+    /**
+     * Number of steps.
+     */
+    private int size;
+
+
+    // Registration
+    //--------------------------------------------------------------------------
+
+    /**
+     * Register a step bringing data to a version.
+     *
+     * @param version version introducing the step
+     * @param name name of the step, for the reports
+     * @param step step, returning the migrated data
+     *
+     * @return this runner
+     */
+    public @NonNull MigrationRunner<T> register(@NonNull SemVer version, @NonNull String name, @NonNull UnaryOperator<T> step) {
+        List<Step<T>> versionSteps = steps.get(version);
+        if (versionSteps == null) {
+            versionSteps = new ArrayList<>(1);
+            steps.put(version, versionSteps);
+        }
+        versionSteps.add(new Step<>(version, name, step));
+        size++;
+        return this;
+    }
+
+    /**
+     * Register a step bringing data to a version.
+     *
+     * @param version version introducing the step
+     * @param name name of the step, for the reports
+     * @param step step, returning the migrated data
+     *
+     * @return this runner
+     */
+    public @NonNull MigrationRunner<T> register(@NonNull Version version, @NonNull String name, @NonNull UnaryOperator<T> step) {
+        return register(toSemVer(version), name, step);
+    }
+
+    /**
+     * @return the number of registered steps
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the greatest version with a step, null if there is no step
+     */
+    public @Nullable SemVer lastVersion() {
+        final Map.Entry<SemVer, List<Step<T>>> last = steps.lastEntry();
+        return last == null ? null : last.getKey();
+    }
+
+
+    // Run
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param from stored version
+     * @param to current version
+     *
+     * @return the names of the steps to run, in order
+     */
+    public @NonNull List<String> plan(@NonNull Version from, @NonNull Version to) {
+        final List<String> names = new ArrayList<>();
+        for (Step<T> step : chain(toSemVer(from), toSemVer(to))) {
+            names.add(step.name);
+        }
+        return names;
+    }
+
+    /**
+     * Run the steps from a version to another one.
+     *
+     * @param data data in the stored version
+     * @param from stored version
+     * @param to current version
+     *
+     * @return the migrated data
+     *
+     * @throws IllegalStateException if a step fails
+     */
+    public T run(T data, @NonNull Version from, @NonNull Version to) {
+        return run(data, toSemVer(from), toSemVer(to));
+    }
+
+    /**
+     * Run the steps from a version to another one.
+     *
+     * @param data data in the stored version
+     * @param from stored version
+     * @param to current version
+     *
+     * @return the migrated data
+     *
+     * @throws IllegalStateException if a step fails
+     */
+    public T run(T data, @NonNull SemVer from, @NonNull SemVer to) {
+        for (Step<T> step : chain(from, to)) {
+            final long start = System.nanoTime();
+            data = apply(step, data);
+            report(step, 1, System.nanoTime() - start);
+        }
+        return data;
+    }
+
+    /**
+     * Run the steps from a version to another one on each element of a stream, lazily: elements are migrated one by
+     * one as the stream is consumed, without loading the whole data set.
+     *
+     * <p>The time spent in each step is summed over the elements, and reported when the returned stream is closed.
+     *
+     * @param data elements in the stored version
+     * @param from stored version
+     * @param to current version
+     *
+     * @return the stream of migrated elements
+     */
+    public @NonNull Stream<T> run(@NonNull Stream<T> data, @NonNull Version from, @NonNull Version to) {
+        final List<Step<T>> chain = chain(toSemVer(from), toSemVer(to));
+        if (chain.isEmpty())
+            return data;
+
+        final LongAdder[] nanos = new LongAdder[chain.size()];
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = new LongAdder();
+        }
+        final LongAdder count = new LongAdder();
+
+        return data.map(element -> {
+            for (int i = 0; i < nanos.length; i++) {
+                final long start = System.nanoTime();
+                element = apply(chain.get(i), element);
+                nanos[i].add(System.nanoTime() - start);
+            }
+            count.increment();
+            return element;
+        }).onClose(() -> {
+            for (int i = 0; i < nanos.length; i++) {
+                report(chain.get(i), count.sum(), nanos[i].sum());
+            }
+        });
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    private @NonNull List<Step<T>> chain(@NonNull SemVer from, @NonNull SemVer to) {
+        final List<Step<T>> chain = new ArrayList<>();
+        for (List<Step<T>> versionSteps : steps.migrations(from, to)) {
+            chain.addAll(versionSteps);
+        }
+        return chain;
+    }
+
+    private static <T> T apply(@NonNull Step<T> step, T data) {
+        try {
+            return step.operator.apply(data);
+        }
+        catch (RuntimeException e) {
+            throw new IllegalStateException("Migration step failed: " + step, e);
+        }
+    }
+
+    private static void report(@NonNull Step<?> step, long elements, long nanos) {
+        Logger.logInfo("Migration " + step + ": " + elements + (elements == 1 ? " element" : " elements")
+                + " in " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms");
+    }
+
+    /**
+     * @return the full version, or its numbers if it is not Semantic Versioning compliant
+     */
+    private static @NonNull SemVer toSemVer(@NonNull Version version) {
+        final SemVer semVer = version.toSemVer();
+        return semVer != null ? semVer : new SemVer(version.major, version.minor, version.patch);
+    }
+}
@@ -0,0 +1,270 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+
+/**
+ * <p>Read the name and version of plugins from their jar files, without loading them.
+ *
+ * <p>Only the "plugin.yml" entry of each jar is read, through the zip central directory, and only until its top level
+ * "name:" and "version:" keys are found. The values are then parsed as {@link Version} and {@link SemVer}.
+ * Jars are read in parallel, on the common fork-join pool.
+ *
+ * <pre>
+ * for (PluginManifestScanner.Plugin plugin : PluginManifestScanner.scanDirectory(Paths.get("plugins"))) {
+ *     report(plugin.name, plugin.version);
+ * }
+ * </pre>
+ *
+ * <p>The scanner is not a YAML parser: multi-line values and flow mappings are not supported, which Bukkit does not
+ * accept for these keys anyway.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class PluginManifestScanner {
+
+    /**
+     * Name of the plugin description file in a jar.
+     */
+    public static final String PLUGIN_YML = "plugin.yml";
+
+    /**
+     * Lines are only kept up to this length: longer name or version values are truncated.
+     */
+    private static final int MAX_LINE_LENGTH = 1024;
+
+    private static final byte[] NAME_KEY = "name:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] VERSION_KEY = "version:".getBytes(StandardCharsets.US_ASCII);
+
+
+    private PluginManifestScanner() {
+        throw new IllegalAccessError("This is a private constructor");
+    }
+
+
+    /**
+     * Plugin description read from a jar.
+     */
+    public static final class Plugin {
+
+        /**
+         * Jar containing the plugin.
+         */
+        public final @NonNull Path jar;
+
+        /**
+         * Name of the plugin, null if not found.
+         */
+        public final @Nullable String name;
+
+        /**
+         * Version string, as written in the description, null if not found.
+         */
+        public final @Nullable String versionString;
+
+        /**
+         * Version, null if there is no version string or no version could be extracted from it.
+         */
+        public final @Nullable Version version;
+
+        /**
+         * Version, null if the version string is not Semantic Versioning compliant.
+         */
+        public final @Nullable SemVer semVer;
+
+        Plugin(@NonNull Path jar, @Nullable String name, @Nullable String versionString) {
+            this.jar = jar;
+            this.name = name;
+            this.versionString = versionString;
+            this.version = versionString == null ? null : Version.parse(versionString);
+            this.semVer = versionString == null ? null : SemVer.parse(versionString);
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + versionString + " (" + jar + ")";
+        }
+    }
+
+
+    // Scan
+    //--------------------------------------------------------------------------
+
+    /**
+     * Read the plugins of the jar files of a directory (not of its sub-directories), in parallel.
+     *
+     * @param directory plugins directory
+     *
+     * @return the plugins found, sorted by jar file name
+     *
+     * @throws IOException if the directory cannot be listed
+     */
+    public static @NonNull List<Plugin> scanDirectory(@NonNull Path directory) throws IOException {
+        List<Path> jars = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.jar")) {
+            for (Path jar : stream) {
+                if (Files.isRegularFile(jar))
+                    jars.add(jar);
+            }
+        }
+        jars.sort(null);
+        return scan(jars);
+    }
+
+    /**
+     * Read the plugins of jar files, in parallel.
+     *
+     * <p>Jars that cannot be read, or without {@link #PLUGIN_YML}, are ignored.
+     *
+     * @param jars jar files
+     *
+     * @return the plugins found, in the order of the jars
+     */
+    public static @NonNull List<Plugin> scan(@NonNull Collection<Path> jars) {
+        return jars.parallelStream()
+                .map(PluginManifestScanner::readQuietly)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Read the plugin of a jar file.
+     *
+     * @param jar jar file
+     *
+     * @return the plugin, null if the jar has no {@link #PLUGIN_YML}
+     *
+     * @throws IOException if the jar cannot be read
+     */
+    public static @Nullable Plugin read(@NonNull Path jar) throws IOException {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            final ZipEntry entry = zip.getEntry(PLUGIN_YML);
+            if (entry == null || entry.isDirectory())
+                return null;
+            try (InputStream in = zip.getInputStream(entry)) {
+                return read(jar, in);
+            }
+        }
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    private static @Nullable Plugin readQuietly(@NonNull Path jar) {
+        try {
+            return read(jar);
+        }
+        catch (IOException ignored) {
+            // Not a jar, or a broken one: Bukkit will not load it either
+            return null;
+        }
+    }
+
+    /**
+     * Scan a plugin description line by line, until the name and the version are found.
+     */
+    static @NonNull Plugin read(@NonNull Path jar, @NonNull InputStream description) throws IOException {
+        final InputStream in = new BufferedInputStream(description);
+        final byte[] line = new byte[MAX_LINE_LENGTH];
+        String name = null;
+        String version = null;
+
+        boolean firstLine = true;
+        while (name == null || version == null) {
+            int length = 0;
+            int b;
+            while ((b = in.read()) >= 0 && b != '\n') {
+                if (length < line.length)
+                    line[length++] = (byte) b;
+            }
+            if (b < 0 && length == 0)
+                break;
+
+            // Byte order mark
+            int start = 0;
+            if (firstLine && length >= 3 && (line[0] & 0xFF) == 0xEF && (line[1] & 0xFF) == 0xBB && (line[2] & 0xFF) == 0xBF)
+                start = 3;
+            firstLine = false;
+
+            if (name == null && startsWith(line, start, length, NAME_KEY))
+                name = value(line, start + NAME_KEY.length, length);
+            else if (version == null && startsWith(line, start, length, VERSION_KEY))
+                version = value(line, start + VERSION_KEY.length, length);
+
+            if (b < 0)
+                break;
+        }
+        return new Plugin(jar, name, version);
+    }
+
+    private static boolean startsWith(@NonNull byte[] line, int start, int length, @NonNull byte[] key) {
+        if (length - start < key.length)
+            return false;
+        for (int i = 0; i < key.length; i++) {
+            if (line[start + i] != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the scalar value of a key, without quotes nor comment, null if empty
+     */
+    private static @Nullable String value(@NonNull byte[] line, int start, int end) {
+        while (start < end && isBlank(line[start])) start++;
+        if (start < end && (line[start] == '"' || line[start] == '\'')) {
+            final byte quote = line[start++];
+            int close = start;
+            while (close < end && line[close] != quote) close++;
+            end = close;
+        }
+        else {
+            for (int i = start; i < end; i++) {
+                if (line[i] == '#' && (i == start || isBlank(line[i - 1]))) {
+                    end = i;
+                    break;
+                }
+            }
+            while (end > start && isBlank(line[end - 1])) end--;
+        }
+        return start < end ? new String(line, start, end - start, StandardCharsets.UTF_8) : null;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
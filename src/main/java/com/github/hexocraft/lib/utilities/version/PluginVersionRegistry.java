@@ -0,0 +1,294 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * <p>Versions of the enabled plugins, parsed once and kept up to date by the plugin enable and disable events.
+ *
+ * <p>Lookups are lock free: features depending on other plugins can check their versions as often as needed.
+ *
+ * <pre>
+ * PluginVersionRegistry registry = PluginVersionRegistry.register(this);
+ * if (registry.satisfies("WorldEdit", "&gt;=6.1 &lt;7")) ...
+ * </pre>
+ *
+ * <p>Plugin names are case sensitive, as in {@link PluginManager#getPlugin(String)}.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class PluginVersionRegistry implements Listener {
+
+    /**
+     * Notified when the version of a plugin is added, changed or removed.
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        /**
+         * @param pluginName name of the plugin
+         * @param oldVersion previous version, null if the plugin was not registered
+         * @param newVersion new version, null if the plugin has been removed
+         */
+        void versionChanged(@NonNull String pluginName, @Nullable Version oldVersion, @Nullable Version newVersion);
+    }
+
+    /**
+     * Version of the plugins without version number.
+     */
+    private static final Version NO_VERSION = new Version(0, 0, 0);
+
+    /**
+     * Maximum number of cached constraints.
+     */
+    static final int MAX_CACHED_CONSTRAINTS = 256;
+
+    /**
+     * Versions by plugin name. {@link #NO_VERSION} for the plugins without version number.
+     */
+    private final @NonNull Map<String, Version> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Compiled constraints, by source, up to {@link #MAX_CACHED_CONSTRAINTS}.
+     */
+    private final @NonNull Map<String, VersionConstraint> constraints = new ConcurrentHashMap<>();
+
+    /**
+     * Listeners notified of the changes.
+     */
+    private final @NonNull List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+
+    /**
+     * Create a registry of the plugins currently enabled, kept up to date by the plugin events.
+     *
+     * @param owner plugin owning the registry, used to register the events
+     *
+     * @return the registry
+     */
+    public static @NonNull PluginVersionRegistry register(@NonNull Plugin owner) {
+        final PluginManager manager = Bukkit.getPluginManager();
+        final PluginVersionRegistry registry = new PluginVersionRegistry();
+        registry.refresh(manager.getPlugins());
+        manager.registerEvents(registry, owner);
+        return registry;
+    }
+
+    /**
+     * Stop listening to the plugin events.
+     */
+    public void unregister() {
+        HandlerList.unregisterAll(this);
+    }
+
+
+    // Events
+    //--------------------------------------------------------------------------
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginEnable(@NonNull PluginEnableEvent event) {
+        add(event.getPlugin());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(@NonNull PluginDisableEvent event) {
+        remove(event.getPlugin().getName());
+    }
+
+
+    // Registration
+    //--------------------------------------------------------------------------
+
+    /**
+     * Register the enabled plugins, and forget the others.
+     *
+     * @param plugins plugins, e.g. {@link PluginManager#getPlugins()}
+     */
+    public void refresh(@NonNull Plugin[] plugins) {
+        final Map<String, Plugin> enabled = new HashMap<>();
+        for (Plugin plugin : plugins) {
+            if (plugin.isEnabled())
+                enabled.put(plugin.getName(), plugin);
+        }
+        for (String name : versions.keySet()) {
+            if (!enabled.containsKey(name))
+                remove(name);
+        }
+        for (Plugin plugin : enabled.values()) {
+            add(plugin);
+        }
+    }
+
+    /**
+     * Register the version of a plugin, or update it.
+     *
+     * @param plugin plugin
+     */
+    public void add(@NonNull Plugin plugin) {
+        final Version parsed = Version.parse(plugin.getDescription().getVersion());
+        final Version version = parsed == null ? NO_VERSION : parsed;
+        final Version old = versions.put(plugin.getName(), version);
+        if (old == null || !old.equals(version))
+            notifyListeners(plugin.getName(), old, version);
+    }
+
+    /**
+     * Forget the version of a plugin.
+     *
+     * @param pluginName name of the plugin
+     */
+    public void remove(@NonNull String pluginName) {
+        final Version old = versions.remove(pluginName);
+        if (old != null)
+            notifyListeners(pluginName, old, null);
+    }
+
+    /**
+     * @param listener listener notified of the following changes
+     */
+    public void addChangeListener(@NonNull ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener listener to remove
+     */
+    public void removeChangeListener(@NonNull ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+
+    // Lookups
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param pluginName name of the plugin
+     *
+     * @return true if the plugin is enabled
+     */
+    public boolean contains(@NonNull String pluginName) {
+        return versions.containsKey(pluginName);
+    }
+
+    /**
+     * @param pluginName name of the plugin
+     *
+     * @return the version of the plugin, null if it is not enabled or has no version number
+     */
+    public @Nullable Version getVersion(@NonNull String pluginName) {
+        final Version version = versions.get(pluginName);
+        return version == NO_VERSION ? null : version;
+    }
+
+    /**
+     * @param pluginName name of the plugin
+     *
+     * @return the version of the plugin, null if it is not enabled or not Semantic Versioning compliant
+     */
+    public @Nullable SemVer getSemVer(@NonNull String pluginName) {
+        final Version version = getVersion(pluginName);
+        return version == null ? null : version.toSemVer();
+    }
+
+    /**
+     * @return the versions of the enabled plugins with a version number, by plugin name
+     */
+    public @NonNull Map<String, Version> getVersions() {
+        final Map<String, Version> copy = new HashMap<>(versions);
+        copy.values().removeIf(version -> version == NO_VERSION);
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * @return the number of enabled plugins
+     */
+    public int size() {
+        return versions.size();
+    }
+
+    /**
+     * @param pluginName name of the plugin
+     * @param constraint version constraint
+     *
+     * @return true if the plugin is enabled and its version satisfies the constraint
+     */
+    public boolean satisfies(@NonNull String pluginName, @NonNull VersionConstraint constraint) {
+        final Version version = getVersion(pluginName);
+        return version != null && constraint.test(version);
+    }
+
+    /**
+     * Same as {@link #satisfies(String, VersionConstraint)}, the constraint being compiled once and cached.
+     *
+     * <p>The cache is meant for the constant constraints of a plugin: only the first 256 distinct constraints are
+     * cached, the others being compiled on each call. Keep the compiled {@link VersionConstraint} of constraints built
+     * from configuration or user input.
+     *
+     * @param pluginName name of the plugin
+     * @param constraint version constraint, see {@link VersionConstraint}
+     *
+     * @return true if the plugin is enabled and its version satisfies the constraint
+     *
+     * @throws IllegalArgumentException if the constraint is not valid
+     */
+    public boolean satisfies(@NonNull String pluginName, @NonNull String constraint) {
+        VersionConstraint compiled = constraints.get(constraint);
+        if (compiled == null) {
+            compiled = VersionConstraint.parse(constraint);
+            // Racy check: concurrent calls may exceed the limit by the number of threads
+            if (constraints.size() < MAX_CACHED_CONSTRAINTS)
+                constraints.putIfAbsent(constraint, compiled);
+        }
+        return satisfies(pluginName, compiled);
+    }
+
+    /**
+     * @return the number of cached constraints
+     */
+    int cachedConstraintCount() {
+        return constraints.size();
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    private void notifyListeners(@NonNull String pluginName, @Nullable Version oldVersion, @Nullable Version newVersion) {
+        for (ChangeListener listener : listeners) {
+            listener.versionChanged(pluginName, oldVersion == NO_VERSION ? null : oldVersion, newVersion == NO_VERSION ? null : newVersion);
+        }
+    }
+}
@@ -24,11 +24,15 @@ import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 
@@ -48,6 +52,89 @@ import java.util.regex.Pattern;
 @SuppressWarnings("WeakerAccess")
 public final class SemVer implements Comparable<SemVer> {
 
+    /**
+     * Result of {@link SemVer#check(CharSequence)}.
+     */
+    public enum ParseStatus {
+        /** The string is Semantic Versioning compliant. */
+        VALID,
+        /** A version number is missing or has a leading zero. */
+        INVALID_NUMBER,
+        /** A version number does not fit in an int. */
+        NUMBER_TOO_LARGE,
+        /** Version numbers are not separated by a dot. */
+        MISSING_DOT,
+        /** The string contains "--", "++", "..", "+-" or "-+". */
+        INVALID_SEQUENCE,
+        /** A pre-release or build meta data tag is empty or contains an invalid character. */
+        INVALID_TAG
+    }
+
+    /**
+     * Most significant change between two versions, see {@link SemVer#diff(SemVer)}.
+     */
+    public enum Change {
+        /** The versions are equal. */
+        NONE,
+        /** Only the build meta data differs. */
+        BUILD,
+        /** Only the pre-release tags differ. */
+        PRE_RELEASE,
+        /** The patch levels differ. */
+        PATCH,
+        /** The minor version numbers differ. */
+        MINOR,
+        /** The major version numbers differ. */
+        MAJOR;
+
+        private static final Change[] VALUES = values();
+
+        /**
+         * @param diff result of {@link SemVer#diff(SemVer)}
+         *
+         * @return the kind of change
+         */
+        public static @NonNull Change of(long diff) {
+            return VALUES[(int) (diff >>> DISTANCE_BITS)];
+        }
+
+        /**
+         * @param diff result of {@link SemVer#diff(SemVer)}
+         *
+         * @return the distance of the change: the difference of the changed numbers, the sign of {@link SemVer#compareTo(SemVer)}
+         * for pre-release tags (0 if it does not order them), 0 for build meta data. Positive if the second version is
+         * newer.
+         */
+        public static long distance(long diff) {
+            return (diff << (Long.SIZE - DISTANCE_BITS)) >> (Long.SIZE - DISTANCE_BITS);
+        }
+
+        private long with(long distance) {
+            return ((long) ordinal() << DISTANCE_BITS) | (distance & DISTANCE_MASK);
+        }
+    }
+
+    /**
+     * Bits of the distance in the result of {@link #diff(SemVer)}, the kind of change being stored above.
+     */
+    private static final int DISTANCE_BITS = 56;
+    private static final long DISTANCE_MASK = (1L << DISTANCE_BITS) - 1;
+
+    /**
+     * Number of ints describing a pre-release tag in {@link #preRelease}: start, end and numeric value.
+     */
+    private static final int TAG_FIELDS = 3;
+
+    /**
+     * Pre-release of the versions without pre-release tags.
+     */
+    private static final int[] NO_TAGS = new int[0];
+
+    /**
+     * Pattern used to validate pre-release and build meta data tags.
+     */
+    private static final Pattern TAG_PATTERN = Pattern.compile("^(?!.*\\-{2}.*)(?!.*\\.{2}.*)([a-zA-Z0-9\\.\\-]+)$");
+
     /**
      * Major version number.
      */
@@ -64,14 +151,25 @@ public final class SemVer implements Comparable<SemVer> {
     public final int patch;
 
     /**
-     * Pre-release tags (potentially empty, but never null).
+     * Canonical string representation, MAJOR.MINOR.PATCH-RELEASES+BUILD. The tags are read in place from it.
+     */
+    private final @NonNull String text;
+
+    /**
+     * Index of the '+' in front of the build meta data, length of {@link #text} if there is none.
+     */
+    private final int buildStart;
+
+    /**
+     * Pre-release tags sorted for comparison and equality, {@link #TAG_FIELDS} ints per tag: start and end of the tag
+     * in {@link #text}, and value of the tag if it is a number fitting in an int (-1 otherwise).
      */
-    private final @NonNull List<String> preRelease;
+    private final @NonNull int[] preRelease;
 
     /**
-     * Build meta data tags (potentially empty, but never null).
+     * Cached hash code, 0 until computed.
      */
-    private final @NonNull String buildMetaData;
+    private int hash;
 
     /**
      * @param major major version number (must not be negative).
@@ -89,7 +187,7 @@ public final class SemVer implements Comparable<SemVer> {
      * @param preRelease pre release identifiers.
      */
     public SemVer(@NonNegative int major, @NonNegative int minor, @NonNegative int patch, @NonNull String preRelease) {
-        this(major, minor, patch, new ArrayList<>(Collections.singletonList(preRelease)), "");
+        this(major, minor, patch, Collections.singletonList(preRelease), "");
     }
 
     /**
@@ -100,7 +198,7 @@ public final class SemVer implements Comparable<SemVer> {
      * @param buildMetaData build meta identifier.
      */
     public SemVer(@NonNegative int major, @NonNegative int minor, @NonNegative int patch, @NonNull String preRelease, @NonNull String buildMetaData) {
-        this(major, minor, patch, new ArrayList<>(Collections.singletonList(preRelease)), buildMetaData);
+        this(major, minor, patch, Collections.singletonList(preRelease), buildMetaData);
     }
 
     /**
@@ -111,11 +209,7 @@ public final class SemVer implements Comparable<SemVer> {
      * @param buildMetaData build meta identifier.
      */
     public SemVer(@NonNegative int major, @NonNegative int minor, @NonNegative int patch, @NonNull List<String> preRelease, @NonNull String buildMetaData) {
-        this.major = major;
-        this.minor = minor;
-        this.patch = patch;
-        this.preRelease = validatePreRelease(preRelease);
-        this.buildMetaData = validateBuildMetaData(buildMetaData);
+        this(buildText(major, minor, patch, validatePreRelease(preRelease), validateBuildMetaData(buildMetaData)), major, minor, patch);
     }
 
     /**
@@ -124,21 +218,58 @@ public final class SemVer implements Comparable<SemVer> {
      * @param version version in flat string format
      */
     public SemVer(@NonNull String version) {
+        this(version, check(version));
+    }
 
-        // Pattern used to validate pre-release tags
-        final Pattern p = Pattern.compile("^(?!.*\\-{2}.*)(?!.*\\+{2}.*)(?!.*\\.{2}.*)(?!.*\\+\\-.*)(?!.*\\-\\+.*)(?<Major>(?!0)(\\d*)|([0^\\d]))\\.(?<Minor>(?!0)(\\d*)|([0^\\d]))\\.(?<Patch>(?!0)(\\d*)|([0^\\d]))(?![\\+\\-][^a-zA-Z0-9])(\\-(?<PreRelease>[a-zA-Z0-9\\.-]+))?(\\+(?<Build>[a-zA-Z0-9\\.-]+))?$");
-        final Matcher m = p.matcher(version);
+    /**
+     * @param version version in flat string format
+     * @param status result of {@link #check(CharSequence)} on the version
+     */
+    private SemVer(@NonNull String version, @NonNull ParseStatus status) {
 
-        // Pattern must match
-        if (!m.matches()) {
+        // Version must be compliant
+        if (status != ParseStatus.VALID) {
             throw new IllegalArgumentException("Invalid version (Not Semantic Versioning compliant): " + version);
         }
 
-        this.major = Integer.parseInt(m.group("Major"));
-        this.minor = Integer.parseInt(m.group("Minor"));
-        this.patch = Integer.parseInt(m.group("Patch"));
-        this.preRelease = validatePreRelease(m.group("PreRelease"));
-        this.buildMetaData = validateBuildMetaData(m.group("Build"));
+        final int minorStart = version.indexOf('.') + 1;
+        final int patchStart = version.indexOf('.', minorStart) + 1;
+        final int patchEnd = skipNumber(version, patchStart, version.length());
+
+        this.major = parseNumber(version, 0);
+        this.minor = parseNumber(version, minorStart);
+        this.patch = parseNumber(version, patchStart);
+
+        // Tags: '+' can only be found in front of the build meta data
+        int buildStart = version.indexOf('+', patchEnd);
+        if (buildStart < 0)
+            buildStart = version.length();
+
+        // The string is kept as is, unless it ends the pre-release with a '-' ignored by the tags
+        String text = version;
+        if (buildStart > patchEnd && version.charAt(buildStart - 1) == '-') {
+            text = version.substring(0, buildStart - 1) + version.substring(buildStart);
+            buildStart--;
+        }
+        this.text = text;
+        this.buildStart = buildStart;
+        this.preRelease = indexPreRelease(text, patchEnd, buildStart);
+    }
+
+    /**
+     * @param text canonical string representation, with validated tags.
+     * @param major major version number.
+     * @param minor minor version number.
+     * @param patch patch level.
+     */
+    private SemVer(@NonNull String text, int major, int minor, int patch) {
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        this.text = text;
+        final int plus = text.indexOf('+');
+        this.buildStart = plus < 0 ? text.length() : plus;
+        this.preRelease = indexPreRelease(text, numbersEnd(text), buildStart);
     }
 
 
@@ -147,27 +278,71 @@ public final class SemVer implements Comparable<SemVer> {
 
     @Override
     public @NonNull String toString() {
-        StringBuilder ret = new StringBuilder();
-        ret.append(major);
-        ret.append('.');
-        ret.append(minor);
-        ret.append('.');
-        ret.append(patch);
+        return text;
+    }
+
+    /**
+     * @return the number of bytes written by {@link #writeUtf8(ByteBuffer)}, also the length of {@link #toString()}:
+     * a version only contains ASCII characters.
+     */
+    public int encodedLength() {
+        return text.length();
+    }
+
+    /**
+     * Append this version to a builder, without intermediate string.
+     *
+     * @param out builder to append to
+     *
+     * @return the builder
+     */
+    public @NonNull StringBuilder appendTo(@NonNull StringBuilder out) {
+        return out.append(text);
+    }
 
-        if(!preRelease.isEmpty()) {
-            for (String pre : preRelease) {
+    /**
+     * Append this version to an output, without intermediate string.
+     *
+     * @param out output to append to
+     * @param <A> type of the output
+     *
+     * @return the output
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public <A extends Appendable> @NonNull A appendTo(@NonNull A out) throws IOException {
+        out.append(text);
+        return out;
+    }
 
-                ret.append('-');
-                ret.append(pre);
+    /**
+     * Write this version encoded in UTF-8 at the position of a buffer, without intermediate array. The position is
+     * advanced by {@link #encodedLength()}.
+     *
+     * @param buffer buffer to write to
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has less than {@link #encodedLength()} bytes remaining,
+     * nothing being written
+     */
+    public void writeUtf8(@NonNull ByteBuffer buffer) {
+        final int length = text.length();
+        if (buffer.remaining() < length)
+            throw new BufferOverflowException();
+
+        final int position = buffer.position();
+        if (buffer.hasArray()) {
+            final byte[] array = buffer.array();
+            final int offset = buffer.arrayOffset() + position;
+            for (int i = 0; i < length; i++) {
+                array[offset + i] = (byte) text.charAt(i);
             }
         }
-
-        if (!buildMetaData.isEmpty()) {
-            ret.append('+');
-            ret.append(buildMetaData);
+        else {
+            for (int i = 0; i < length; i++) {
+                buffer.put(position + i, (byte) text.charAt(i));
+            }
         }
-
-        return ret.toString();
+        buffer.position(position + length);
     }
 
     /**
@@ -176,7 +351,7 @@ public final class SemVer implements Comparable<SemVer> {
      * @return true if the major version number is greater than zero and there are no pre release tags.
      */
     public boolean isStable() {
-        return major > 0 && preRelease.isEmpty();
+        return major > 0 && preRelease.length == 0;
     }
 
     /**
@@ -187,8 +362,8 @@ public final class SemVer implements Comparable<SemVer> {
      * @return true if the tag is found in {@link SemVer#preRelease}.
      */
     public boolean hasPreReleaseTag(@NonNull String tag) {
-        for (String s : preRelease) {
-            if (s.equals(tag))
+        for (int i = 0; i < preRelease.length; i += TAG_FIELDS) {
+            if (regionEquals(text, preRelease[i], preRelease[i + 1], tag, 0, tag.length()))
                 return true;
         }
         return false;
@@ -202,7 +377,9 @@ public final class SemVer implements Comparable<SemVer> {
      * @return true if the tag is found in {@link SemVer#buildMetaData}.
      */
     public boolean hasBuildMetaTag(@NonNull String buildMeta) {
-        return buildMetaData.equals(buildMeta);
+        if (buildStart == text.length())
+            return buildMeta.isEmpty();
+        return regionEquals(text, buildStart + 1, text.length(), buildMeta, 0, buildMeta.length());
     }
 
     public boolean isGreaterThan(@NonNull SemVer other) {
@@ -236,6 +413,40 @@ public final class SemVer implements Comparable<SemVer> {
     }
 
 
+    /**
+     * Most significant change from this version to another one, and its distance, in one pass and without allocation.
+     *
+     * <pre>
+     * long diff = installed.diff(available);
+     * if (SemVer.Change.of(diff) == SemVer.Change.PATCH &amp;&amp; SemVer.Change.distance(diff) &gt; 0) install(available);
+     * </pre>
+     *
+     * @param other the other version object, compared to this one
+     *
+     * @return the change and its distance, packed in a long: decode them with {@link Change#of(long)} and
+     * {@link Change#distance(long)}
+     */
+    public long diff(@NonNull SemVer other) {
+        if (major != other.major)
+            return Change.MAJOR.with((long) other.major - major);
+        if (minor != other.minor)
+            return Change.MINOR.with((long) other.minor - minor);
+        if (patch != other.patch)
+            return Change.PATCH.with((long) other.patch - patch);
+
+        // Same direction as compareTo(), tags it does not order being reported without distance
+        final int comparison = other.comparePreReleaseTo(this);
+        if (comparison != 0)
+            return Change.PRE_RELEASE.with(Integer.signum(comparison));
+        if (!preReleaseEquals(other))
+            return Change.PRE_RELEASE.with(0);
+
+        if (!regionEquals(text, buildStart, text.length(), other.text, other.buildStart, other.text.length()))
+            return Change.BUILD.with(0);
+        return Change.NONE.with(0);
+    }
+
+
     // Static helper functions
     //--------------------------------------------------------------------------
 
@@ -247,12 +458,60 @@ public final class SemVer implements Comparable<SemVer> {
      * @return {@link SemVer} if the string is semver compliant else null
      */
     public static @Nullable SemVer parse(@NonNull String version) {
-        try {
-            return new SemVer(version);
-        }
-        catch (Exception e) {
-            return null;
-        }
+        final ParseStatus status = check(version);
+        return status == ParseStatus.VALID ? new SemVer(version, status) : null;
+    }
+
+    /**
+     * Construct a {@link SemVer} object by parsing a region of a string, e.g. a token of a manifest.
+     * The region is validated in place: only the string of a valid version is built.
+     *
+     * @param version text containing the version
+     * @param start start of the version (inclusive)
+     * @param end end of the version (exclusive)
+     *
+     * @return {@link SemVer} if the region is semver compliant else null
+     *
+     * @throws IndexOutOfBoundsException if the region is not in the text
+     */
+    public static @Nullable SemVer parse(@NonNull CharSequence version, @NonNegative int start, @NonNegative int end) {
+        final ParseStatus status = check(version, start, end);
+        return status == ParseStatus.VALID ? new SemVer(version.subSequence(start, end).toString(), status) : null;
+    }
+
+    /**
+     * Construct a {@link SemVer} object by parsing UTF-8 bytes between the position and the limit of a buffer, which
+     * are left untouched.
+     *
+     * @param buffer UTF-8 encoded version
+     *
+     * @return {@link SemVer} if the bytes are semver compliant else null
+     */
+    public static @Nullable SemVer parse(@NonNull ByteBuffer buffer) {
+        return parse(buffer, buffer.position(), buffer.limit());
+    }
+
+    /**
+     * Construct a {@link SemVer} object by parsing UTF-8 bytes of a buffer, between absolute indexes. The position and
+     * the limit of the buffer are left untouched.
+     *
+     * <p>A version is ASCII only: any byte of a multi-byte sequence makes the version invalid.
+     *
+     * @param buffer buffer containing the UTF-8 encoded version
+     * @param start index of the first byte of the version (inclusive)
+     * @param end index after the last byte of the version (exclusive)
+     *
+     * @return {@link SemVer} if the bytes are semver compliant else null
+     *
+     * @throws IndexOutOfBoundsException if the region is not before the limit of the buffer
+     */
+    public static @Nullable SemVer parse(@NonNull ByteBuffer buffer, @NonNegative int start, @NonNegative int end) {
+        if (start < 0 || end > buffer.limit() || start > end)
+            throw new IndexOutOfBoundsException("Invalid region [" + start + ", " + end + ") of a buffer limited to " + buffer.limit());
+
+        final AsciiSequence version = new AsciiSequence(buffer, start, end);
+        final ParseStatus status = check(version);
+        return status == ParseStatus.VALID ? new SemVer(version.toString(), status) : null;
     }
 
     /**
@@ -274,7 +533,7 @@ public final class SemVer implements Comparable<SemVer> {
      * @return true if valid
      */
     public static boolean isSemver(@NonNull String version) {
-        return SemVer.parse(version) != null;
+        return check(version) == ParseStatus.VALID;
     }
 
     /**
@@ -285,24 +544,423 @@ public final class SemVer implements Comparable<SemVer> {
      * @return true if valid
      */
     public static boolean isSemver(@NonNull JavaPlugin plugin) {
-        return SemVer.parse(plugin) != null;
+        return isSemver(plugin.getDescription().getVersion());
     }
 
+    /**
+     * Check a string against Semantic Versioning without throwing, nor building a {@link SemVer}.
+     *
+     * @param version version in flat string format
+     *
+     * @return {@link ParseStatus#VALID} if {@link #SemVer(String)} accepts the string, else the first error found
+     */
+    public static @NonNull ParseStatus check(@NonNull CharSequence version) {
+        return check(version, 0, version.length());
+    }
 
-    // Internal functions used during validation process
+    /**
+     * Check a region of a string against Semantic Versioning, the same way as {@link #check(CharSequence)} on the
+     * substring.
+     *
+     * @param version text containing the version
+     * @param start start of the version (inclusive)
+     * @param end end of the version (exclusive)
+     *
+     * @return {@link ParseStatus#VALID} if the region is a valid version, else the first error found
+     *
+     * @throws IndexOutOfBoundsException if the region is not in the text
+     */
+    public static @NonNull ParseStatus check(@NonNull CharSequence version, @NonNegative int start, @NonNegative int end) {
+        if (start < 0 || end > version.length() || start > end)
+            throw new IndexOutOfBoundsException("Invalid region [" + start + ", " + end + ") of a text of length " + version.length());
+        final int len = end;
+
+        // Forbidden sequences: "--", "++", "..", "+-" and "-+"
+        for (int i = start + 1; i < len; i++) {
+            final char prev = version.charAt(i - 1);
+            final char c = version.charAt(i);
+            if ((prev == '.' && c == '.') || ((prev == '-' || prev == '+') && (c == '-' || c == '+')))
+                return ParseStatus.INVALID_SEQUENCE;
+        }
+
+        // Major.Minor.Patch
+        int pos = start;
+        for (int n = 0; n < 3; n++) {
+            if (n > 0) {
+                if (pos >= len || version.charAt(pos) != '.') return ParseStatus.MISSING_DOT;
+                pos++;
+            }
+            final int numberEnd = skipNumber(version, pos, len);
+            if (numberEnd == NUMBER_TOO_LARGE) return ParseStatus.NUMBER_TOO_LARGE;
+            if (numberEnd < 0 || (numberEnd < len && isDigit(version.charAt(numberEnd)))) return ParseStatus.INVALID_NUMBER;
+            pos = numberEnd;
+        }
+        if (pos == len) return ParseStatus.VALID;
+
+        // A tag must start with an alphanumeric character
+        final char c = version.charAt(pos);
+        if ((c != '-' && c != '+') || pos + 1 == len || !isAlphaNumeric(version.charAt(pos + 1)))
+            return ParseStatus.INVALID_TAG;
+
+        // Pre-release
+        if (c == '-') {
+            pos = skipTag(version, pos + 1, len);
+            if (pos == len) return ParseStatus.VALID;
+            if (version.charAt(pos) != '+') return ParseStatus.INVALID_TAG;
+        }
+
+        // Build meta data
+        final int buildStart = pos + 1;
+        pos = skipTag(version, buildStart, len);
+        return pos > buildStart && pos == len ? ParseStatus.VALID : ParseStatus.INVALID_TAG;
+    }
+
+
+    // Serialization
     //--------------------------------------------------------------------------
 
     /**
-     * Validate a pre-release tag
+     * Write this version in a compact binary form: varint encoded numbers followed by the tags.
+     *
+     * @param out output to write to
      *
-     * @param preRelease Tag to validate
+     * @throws IOException if an I/O error occurs
      *
-     * @return A list of valid pre-release tags
+     * @see VersionCodec
      */
-    private @NonNull List<String> validatePreRelease(@Nullable String preRelease) {
-        if (preRelease == null || preRelease.isEmpty())
+    public void writeTo(@NonNull DataOutput out) throws IOException {
+        VersionCodec.writeVarInt(out, major);
+        VersionCodec.writeVarInt(out, minor);
+        VersionCodec.writeVarInt(out, patch);
+        final List<String> preRelease = preReleaseTags();
+        VersionCodec.writeVarInt(out, preRelease.size());
+        for (String tag : preRelease) {
+            VersionCodec.writeTag(out, tag);
+        }
+        VersionCodec.writeTag(out, buildMetaData());
+    }
+
+    /**
+     * Read a version written by {@link #writeTo(DataOutput)}, without parsing.
+     *
+     * @param in input to read from
+     *
+     * @return the version read
+     *
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the data read is not a valid version
+     */
+    public static @NonNull SemVer readFrom(@NonNull DataInput in) throws IOException {
+        final int major = VersionCodec.readVarInt(in);
+        final int minor = VersionCodec.readVarInt(in);
+        final int patch = VersionCodec.readVarInt(in);
+        final int count = VersionCodec.readVarInt(in);
+        if (count < 0 || count > VersionCodec.MAX_TAGS)
+            throw new IllegalArgumentException("Invalid pre-release tag count: " + count);
+
+        List<String> preRelease = count == 0 ? Collections.emptyList() : new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            preRelease.add(VersionCodec.readTag(in));
+        }
+        return fromParts(major, minor, patch, preRelease, VersionCodec.readTag(in));
+    }
+
+    /**
+     * Build a version from split pre-release tags, validated without regular expressions.
+     *
+     * @param major major version number.
+     * @param minor minor version number.
+     * @param patch patch level.
+     * @param preRelease pre release identifiers, already split on '-'.
+     * @param buildMetaData build meta identifier.
+     *
+     * @return the version
+     *
+     * @throws IllegalArgumentException if a number is negative or if a tag is not valid
+     */
+    static @NonNull SemVer fromParts(int major, int minor, int patch, @NonNull List<String> preRelease, @NonNull String buildMetaData) {
+        if (major < 0 || minor < 0 || patch < 0)
+            throw new IllegalArgumentException("Invalid version numbers: " + major + "." + minor + "." + patch);
+        for (String tag : preRelease) {
+            if (tag.isEmpty() || !isValidTag(tag, false))
+                throw new IllegalArgumentException("Invalid pre-release tag: " + tag);
+        }
+        if (!buildMetaData.isEmpty() && !isValidTag(buildMetaData, true))
+            throw new IllegalArgumentException("Invalid build meta data: " + buildMetaData);
+        return new SemVer(buildText(major, minor, patch, preRelease, buildMetaData), major, minor, patch);
+    }
+
+    /**
+     * @return a new list of the pre-release tags, split on '-', in order.
+     */
+    @NonNull List<String> preReleaseTags() {
+        if (preRelease.length == 0)
             return Collections.emptyList();
-        return validatePreRelease(new ArrayList<>(Collections.singletonList(preRelease)));
+
+        final int tagCount = preRelease.length / TAG_FIELDS;
+        List<String> tags = new ArrayList<>(tagCount);
+        int start = numbersEnd(text) + 1;
+        for (int i = 0; i < tagCount; i++) {
+            final int end = i + 1 < tagCount ? text.indexOf('-', start) : buildStart;
+            tags.add(text.substring(start, end));
+            start = end + 1;
+        }
+        return tags;
+    }
+
+    /**
+     * @return the build meta data, empty if none.
+     */
+    @NonNull String buildMetaData() {
+        return buildStart == text.length() ? "" : text.substring(buildStart + 1);
+    }
+
+    /**
+     * @return true if this version has pre-release tags.
+     */
+    boolean hasPreRelease() {
+        return preRelease.length != 0;
+    }
+
+    /**
+     * @return a hash of the pre-release tags, equal for versions differing only by their build meta data.
+     */
+    int preReleaseHash() {
+        int result = 0;
+        for (int i = 0; i < preRelease.length; i += TAG_FIELDS) {
+            result = 31 * result + regionHash(text, preRelease[i], preRelease[i + 1]);
+        }
+        return result;
+    }
+
+    /**
+     * @return true if this version has pre-release tags or build meta data.
+     */
+    boolean hasTags() {
+        return buildStart > numbersEnd(text);
+    }
+
+
+    // Internal functions used during validation process
+    //--------------------------------------------------------------------------
+
+    private static final int NUMBER_TOO_LARGE = -2;
+
+    /**
+     * @return the index after a number without leading zero, -1 if there is no number, -2 if it does not fit in an int
+     */
+    private static int skipNumber(@NonNull CharSequence version, @NonNegative int from, @NonNegative int len) {
+        if (from >= len || !isDigit(version.charAt(from)))
+            return -1;
+        if (version.charAt(from) == '0')
+            return from + 1;
+
+        int value = 0;
+        int pos = from;
+        while (pos < len && isDigit(version.charAt(pos))) {
+            final int digit = version.charAt(pos++) - '0';
+            if (value > (Integer.MAX_VALUE - digit) / 10)
+                return NUMBER_TOO_LARGE;
+            value = value * 10 + digit;
+        }
+        return pos;
+    }
+
+    /**
+     * Parse the digits starting at an index, already validated by {@link #check(CharSequence)}.
+     */
+    private static int parseNumber(@NonNull CharSequence version, @NonNegative int from) {
+        int value = 0;
+        for (int i = from; i < version.length() && isDigit(version.charAt(i)); i++) {
+            value = value * 10 + (version.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Build the canonical string of a version from validated tags, split on '-' the same way as
+     * {@link String#split(String)}.
+     */
+    private static @NonNull String buildText(int major, int minor, int patch, @NonNull List<String> preRelease, @NonNull String buildMetaData) {
+        StringBuilder ret = new StringBuilder();
+        ret.append(major);
+        ret.append('.');
+        ret.append(minor);
+        ret.append('.');
+        ret.append(patch);
+
+        for (String pre : preRelease) {
+            int start = 0;
+            for (int i = 0; i <= pre.length(); i++) {
+                if (i == pre.length() || pre.charAt(i) == '-') {
+                    if (i > start) ret.append('-').append(pre, start, i);
+                    start = i + 1;
+                }
+            }
+        }
+
+        if (!buildMetaData.isEmpty()) {
+            ret.append('+');
+            ret.append(buildMetaData);
+        }
+
+        return ret.toString();
+    }
+
+    /**
+     * @return the index after the patch level of a canonical string.
+     */
+    private static int numbersEnd(@NonNull String text) {
+        int pos = text.indexOf('.', text.indexOf('.') + 1) + 1;
+        // The int constructors do not reject negative numbers
+        if (text.charAt(pos) == '-')
+            pos++;
+        while (pos < text.length() && isDigit(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Locate the pre-release tags of a canonical string, parse the numeric ones and sort them in comparison order.
+     *
+     * @param text canonical string
+     * @param from index of the '-' in front of the pre-release, or {@code to} if there is no pre-release
+     * @param to end of the pre-release
+     *
+     * @return the tags, {@link #TAG_FIELDS} ints per tag
+     */
+    private static @NonNull int[] indexPreRelease(@NonNull String text, @NonNegative int from, @NonNegative int to) {
+        if (from >= to)
+            return NO_TAGS;
+
+        int count = 1;
+        for (int i = from + 1; i < to; i++) {
+            if (text.charAt(i) == '-') count++;
+        }
+
+        final int[] tags = new int[count * TAG_FIELDS];
+        int n = 0;
+        int start = from + 1;
+        for (int i = start; i <= to; i++) {
+            if (i == to || text.charAt(i) == '-') {
+                tags[n++] = start;
+                tags[n++] = i;
+                tags[n++] = numericValue(text, start, i);
+                start = i + 1;
+            }
+        }
+
+        // Insertion sort: there are only a few tags
+        for (int i = TAG_FIELDS; i < tags.length; i += TAG_FIELDS) {
+            final int tagStart = tags[i], tagEnd = tags[i + 1], tagValue = tags[i + 2];
+            int j = i - TAG_FIELDS;
+            while (j >= 0 && orderTags(text, tags[j], tags[j + 1], tags[j + 2], tagStart, tagEnd, tagValue) > 0) {
+                System.arraycopy(tags, j, tags, j + TAG_FIELDS, TAG_FIELDS);
+                j -= TAG_FIELDS;
+            }
+            tags[j + TAG_FIELDS] = tagStart;
+            tags[j + TAG_FIELDS + 1] = tagEnd;
+            tags[j + TAG_FIELDS + 2] = tagValue;
+        }
+        return tags;
+    }
+
+    /**
+     * @return the value of a tag made of digits only, -1 if the tag is not a number or does not fit in an int.
+     */
+    private static int numericValue(@NonNull String text, @NonNegative int from, @NonNegative int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            final char c = text.charAt(i);
+            if (!isDigit(c) || value > (Integer.MAX_VALUE - (c - '0')) / 10)
+                return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Order of the pre-release tags used to sort them. Ties of the number aware order (like "01" and "1") are broken
+     * by the natural order, so that equal sets of tags are always sorted the same way.
+     */
+    private static int orderTags(@NonNull String text, int start1, int end1, int value1, int start2, int end2, int value2) {
+        final int comparison = compareTags(text, start1, end1, value1, text, start2, end2, value2);
+        if (comparison != 0)
+            return comparison;
+        return naturalOrder(text, start1, end1, text, start2, end2);
+    }
+
+    /**
+     * Character by character comparison of two tags.
+     */
+    private static int naturalOrder(@NonNull String text1, int start1, int end1, @NonNull String text2, int start2, int end2) {
+        final int len1 = end1 - start1;
+        final int len2 = end2 - start2;
+        for (int k = 0; k < Math.min(len1, len2); k++) {
+            final char c1 = text1.charAt(start1 + k);
+            final char c2 = text2.charAt(start2 + k);
+            if (c1 != c2)
+                return c1 - c2;
+        }
+        return len1 - len2;
+    }
+
+    /**
+     * Number aware comparison of two tags, without parsing numeric tags again.
+     */
+    private static int compareTags(@NonNull String text1, int start1, int end1, int value1, @NonNull String text2, int start2, int end2, int value2) {
+        if (value1 >= 0 && value2 >= 0)
+            return Integer.compare(value1, value2);
+        return NumberAwareStringComparator.INSTANCE.compare(text1, start1, end1, text2, start2, end2);
+    }
+
+    private static boolean regionEquals(@NonNull String text1, int start1, int end1, @NonNull String text2, int start2, int end2) {
+        return end1 - start1 == end2 - start2 && text1.regionMatches(start1, text2, start2, end1 - start1);
+    }
+
+    private static int regionHash(@NonNull String text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash;
+    }
+
+    /**
+     * @return the index after the tag characters [a-zA-Z0-9.-]
+     */
+    private static int skipTag(@NonNull CharSequence version, @NonNegative int from, @NonNegative int len) {
+        int pos = from;
+        while (pos < len) {
+            final char c = version.charAt(pos);
+            if (!isAlphaNumeric(c) && c != '.' && c != '-')
+                break;
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAlphaNumeric(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * Same rules as the tag pattern: [a-zA-Z0-9.-] without "--" nor "..". Split pre-release tags have no '-'.
+     */
+    private static boolean isValidTag(@NonNull String tag, boolean dash) {
+        char prev = 0;
+        for (int i = 0; i < tag.length(); i++) {
+            final char c = tag.charAt(i);
+            if (c == '-' ? !dash || prev == '-' : c == '.' ? prev == '.' : !isAlphaNumeric(c))
+                return false;
+            prev = c;
+        }
+        return true;
     }
 
     /**
@@ -310,29 +968,21 @@ public final class SemVer implements Comparable<SemVer> {
      *
      * @param preRelease Tags to validate
      *
-     * @return A list of valid pre-release tags
+     * @return The valid pre-release tags, not split yet
      */
-    private @NonNull List<String> validatePreRelease(@Nullable List<String> preRelease) {
+    private static @NonNull List<String> validatePreRelease(@Nullable List<String> preRelease) {
         if (preRelease == null || preRelease.isEmpty())
             return Collections.emptyList();
 
-        // Array of valid pre-release tags
-        List<String> validPreReleaseTags = new ArrayList<>();
-
-        // Pattern used to validate pre-release tags
-        Pattern p = Pattern.compile("^(?!.*\\-{2}.*)(?!.*\\.{2}.*)([a-zA-Z0-9\\.\\-]+)$");
-
         // Loop throw all pre-release tags
         for (String pre : preRelease) {
             // Pattern must match
-            if (!p.matcher(pre).matches()) {
+            if (!TAG_PATTERN.matcher(pre).matches()) {
                 throw new IllegalArgumentException("Invalid pre-release tag: " + pre);
             }
-            // Add to the valid tags
-            validPreReleaseTags.addAll(Arrays.asList(pre.split("\\-")));
         }
 
-        return validPreReleaseTags;
+        return preRelease;
     }
 
     /**
@@ -342,15 +992,12 @@ public final class SemVer implements Comparable<SemVer> {
      *
      * @return build meta data tag if valid
      */
-    private @NonNull String validateBuildMetaData(@Nullable String buildMetaData) {
+    private static @NonNull String validateBuildMetaData(@Nullable String buildMetaData) {
         if (buildMetaData == null || buildMetaData.isEmpty())
             return "";
 
-        // Pattern used to validate build meta data
-        Pattern p = Pattern.compile("^(?!.*\\-{2}.*)(?!.*\\.{2}.*)([a-zA-Z0-9\\.\\-]+)$");
-
         // Pattern must match
-        if (!p.matcher(buildMetaData).matches()) {
+        if (!TAG_PATTERN.matcher(buildMetaData).matches()) {
             throw new IllegalArgumentException("Invalid build meta data: " + buildMetaData);
         }
 
@@ -382,44 +1029,51 @@ public final class SemVer implements Comparable<SemVer> {
         if (comparison != 0) return comparison;
 
         // Pre-release
-        comparison = comparePreReleaseTo(other.preRelease);
+        comparison = comparePreReleaseTo(other);
         if (comparison != 0) return comparison;
 
         return 0;
     }
 
-    private int comparePreReleaseTo(List<String> other) {
-
-        if (this.preRelease.isEmpty() == true  && other.isEmpty() == true) return 0;
-        if (this.preRelease.isEmpty() == false && other.isEmpty() == true) return -1;
-        if (this.preRelease.isEmpty() == true  && other.isEmpty() == false) return 1;
-
-        NumberAwareStringComparator comparator = NumberAwareStringComparator.INSTANCE;
+    private int comparePreReleaseTo(@NonNull SemVer other) {
+        final int[] tags = this.preRelease;
+        final int[] otherTags = other.preRelease;
 
-        List<String> preReleaseOrdered = new ArrayList<>(this.preRelease);
-        preReleaseOrdered.sort(comparator);
-        List<String> otherPreReleaseOrdered = new ArrayList<>(other);
-        otherPreReleaseOrdered.sort(comparator);
+        // No pre-release is greater than any pre-release
+        if (tags.length == 0 || otherTags.length == 0)
+            return Integer.compare(otherTags.length, tags.length);
 
-        if (preReleaseOrdered.size() == otherPreReleaseOrdered.size()) {
-            return comparator.compare(preReleaseOrdered.get(0), otherPreReleaseOrdered.get(0));
+        if (tags.length == otherTags.length) {
+            return compareTag(other, 0);
         }
-        else if (preReleaseOrdered.size() >= otherPreReleaseOrdered.size()) {
-            int comparison = 0;
-            for (int i = 0; i < otherPreReleaseOrdered.size(); i++) {
-                comparison = comparator.compare(preReleaseOrdered.get(i), otherPreReleaseOrdered.get(i));
-                if (comparison != 0) return comparison;
-            }
-            return 1;
+
+        final int length = Math.min(tags.length, otherTags.length);
+        for (int i = 0; i < length; i += TAG_FIELDS) {
+            final int comparison = compareTag(other, i);
+            if (comparison != 0) return comparison;
         }
-        else {
-            int comparison = 0;
-            for (int i = 0; i < preReleaseOrdered.size(); i++) {
-                comparison = comparator.compare(preReleaseOrdered.get(i), otherPreReleaseOrdered.get(i));
-                if (comparison != 0) return comparison;
-            }
-            return -1;
+        return tags.length > otherTags.length ? 1 : -1;
+    }
+
+    /**
+     * Same tags, in any order.
+     */
+    private boolean preReleaseEquals(@NonNull SemVer other) {
+        final int[] tags = this.preRelease;
+        final int[] otherTags = other.preRelease;
+        if (tags.length != otherTags.length)
+            return false;
+        for (int i = 0; i < tags.length; i += TAG_FIELDS) {
+            if (!regionEquals(text, tags[i], tags[i + 1], other.text, otherTags[i], otherTags[i + 1]))
+                return false;
         }
+        return true;
+    }
+
+    private int compareTag(@NonNull SemVer other, int i) {
+        final int[] tags = this.preRelease;
+        final int[] otherTags = other.preRelease;
+        return compareTags(text, tags[i], tags[i + 1], tags[i + 2], other.text, otherTags[i], otherTags[i + 1], otherTags[i + 2]);
     }
 
     @Override
@@ -433,27 +1087,67 @@ public final class SemVer implements Comparable<SemVer> {
 
         if (major != semVer.major || minor != semVer.minor || patch != semVer.patch)
             return false;
-        if (!preReleaseEquals(semVer.preRelease))
+        if (hash != 0 && semVer.hash != 0 && hash != semVer.hash)
             return false;
-        return buildMetaData.equals(semVer.buildMetaData);
-    }
-
-    private boolean preReleaseEquals(@NonNull List<String> other) {
-        if(this.preRelease.isEmpty() && other.isEmpty())
-            return true;
-        // At least one tag must correspond
-        List<String> tmpPreRelease = new ArrayList<>(this.preRelease);
-        tmpPreRelease.retainAll(other);
-        return !tmpPreRelease.isEmpty();
+        return preReleaseEquals(semVer) && regionEquals(text, buildStart, text.length(), semVer.text, semVer.buildStart, semVer.text.length());
     }
 
     @Override
     public int hashCode() {
-        int result = major;
-        result = 31 * result + minor;
-        result = 31 * result + patch;
-        result = 31 * result + preRelease.hashCode();
-        result = 31 * result + buildMetaData.hashCode();
+        // Racy single-check, like String.hashCode()
+        int result = hash;
+        if (result == 0) {
+            result = major;
+            result = 31 * result + minor;
+            result = 31 * result + patch;
+            for (int i = 0; i < preRelease.length; i += TAG_FIELDS) {
+                result = 31 * result + regionHash(text, preRelease[i], preRelease[i + 1]);
+            }
+            result = 31 * result + regionHash(text, buildStart, text.length());
+            hash = result;
+        }
         return result;
     }
+
+
+    /**
+     * Bytes of a buffer seen as characters, for the validation of a version in place. Bytes above 0x7F are mapped to
+     * characters above 0x7F, which are never valid in a version.
+     */
+    private static final class AsciiSequence implements CharSequence {
+
+        private final @NonNull ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        AsciiSequence(@NonNull ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public @NonNull CharSequence subSequence(int from, int to) {
+            return new AsciiSequence(buffer, start + from, start + to);
+        }
+
+        @Override
+        public @NonNull String toString() {
+            final byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(start + i);
+            }
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
 }
@@ -0,0 +1,348 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * <p>Compact probabilistic set of {@link SemVer}, optionally per artifact, answering "was this version already seen?"
+ * before looking in a full catalog like {@link VersionCatalog}.
+ *
+ * <p>This is a Bloom filter: {@link #mightContain(SemVer)} never returns false for a version that was put, and returns
+ * true for a version that was not put with a small probability, chosen at construction. Each version is hashed once
+ * from its numbers and the hash of its pre-release tags, without allocation. Two versions are the same for the filter
+ * if they are {@link SemVer#equals(Object) equal} once their build meta data is ignored: "1.0.0-a-x+b1" was put if
+ * "1.0.0-x-a" was, while "1.0.0-a-y" is another version. Versions put without artifact are distinct from the versions
+ * of every artifact.
+ *
+ * <p>Filters can be persisted with {@link #writeTo(DataOutput)}, and filters built with the same parameters on
+ * different servers can be merged with {@link #merge(SemVerBloomFilter)}.
+ *
+ * <pre>
+ * SemVerBloomFilter seen = new SemVerBloomFilter(100_000, 0.01);
+ * if (!seen.mightContain(artifact, version) || !processed.contains(artifact + ":" + version)) {
+ *     process(artifact, version);
+ *     seen.put(artifact, version);
+ * }
+ * </pre>
+ *
+ * <p>This class is thread safe: bits are set and read atomically.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class SemVerBloomFilter {
+
+    private static final int MAGIC = 0x48564246; // "HVBF"
+
+    /**
+     * Seed of the versions put without artifact, out of the range of the artifact hashes.
+     */
+    private static final long NO_ARTIFACT = 1L << 32;
+
+    /**
+     * Maximum number of words, the largest array size supported by the VMs.
+     */
+    private static final int MAX_WORDS = Integer.MAX_VALUE - 8;
+
+    /**
+     * Number of hash functions.
+     */
+    private final int hashCount;
+
+    /**
+     * Bits, 64 per word.
+     */
+    private final @NonNull AtomicLongArray words;
+
+    /**
+     * Number of bits, a multiple of 64.
+     */
+    private final long bitSize;
+
+
+    /**
+     * @param expectedInsertions expected number of versions put in the filter
+     * @param falsePositiveProbability wanted probability of {@link #mightContain(SemVer)} returning true for a version
+     * that was not put, once the expected number of versions is reached (between 0 and 1 exclusive)
+     */
+    public SemVerBloomFilter(@Positive int expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0)
+            throw new IllegalArgumentException("Invalid expected insertions: " + expectedInsertions);
+        if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1))
+            throw new IllegalArgumentException("Invalid false positive probability: " + falsePositiveProbability);
+
+        // Optimal size and number of hash functions
+        final double bits = -expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2));
+        final int wordCount = (int) Math.min(MAX_WORDS, Math.max(1, (long) Math.ceil(bits / 64)));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount * 64;
+        this.hashCount = (int) Math.max(1, Math.min(255, Math.round((double) bitSize / expectedInsertions * Math.log(2))));
+    }
+
+    private SemVerBloomFilter(@Positive int hashCount, @NonNull long[] words) {
+        this.hashCount = hashCount;
+        this.words = new AtomicLongArray(words);
+        this.bitSize = (long) words.length * 64;
+    }
+
+
+    // Modification
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param version version to add
+     *
+     * @return true if the filter changed: the version was certainly not put before
+     */
+    public boolean put(@NonNull SemVer version) {
+        return put(hash(NO_ARTIFACT, version));
+    }
+
+    /**
+     * @param artifact artifact of the version
+     * @param version version to add
+     *
+     * @return true if the filter changed: the version of the artifact was certainly not put before
+     */
+    public boolean put(@NonNull String artifact, @NonNull SemVer version) {
+        return put(hash(artifactSeed(artifact), version));
+    }
+
+    /**
+     * Add all the versions of another filter, e.g. one received from another server.
+     *
+     * @param other filter built with the same parameters
+     *
+     * @throws IllegalArgumentException if the filters are not compatible
+     */
+    public void merge(@NonNull SemVerBloomFilter other) {
+        if (!isCompatible(other))
+            throw new IllegalArgumentException("Incompatible filter: " + other + " cannot be merged into " + this);
+        for (int i = 0; i < words.length(); i++) {
+            final long bits = other.words.get(i);
+            if (bits != 0)
+                orWord(i, bits);
+        }
+    }
+
+
+    // Lookups
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param version version
+     *
+     * @return false if the version was certainly not put, true if it probably was
+     */
+    public boolean mightContain(@NonNull SemVer version) {
+        return mightContain(hash(NO_ARTIFACT, version));
+    }
+
+    /**
+     * @param artifact artifact of the version
+     * @param version version
+     *
+     * @return false if the version of the artifact was certainly not put, true if it probably was
+     */
+    public boolean mightContain(@NonNull String artifact, @NonNull SemVer version) {
+        return mightContain(hash(artifactSeed(artifact), version));
+    }
+
+    /**
+     * @param other other filter
+     *
+     * @return true if the filters have the same size and hash functions, and can be merged
+     */
+    public boolean isCompatible(@NonNull SemVerBloomFilter other) {
+        return hashCount == other.hashCount && bitSize == other.bitSize;
+    }
+
+    /**
+     * @return the number of bits of the filter
+     */
+    public long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * @return the number of hash functions
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * @return the number of bits set
+     */
+    public long bitCount() {
+        long count = 0;
+        for (int i = 0; i < words.length(); i++) {
+            count += Long.bitCount(words.get(i));
+        }
+        return count;
+    }
+
+    /**
+     * @return the current probability of {@link #mightContain(SemVer)} returning true for a version that was not put
+     */
+    public double expectedFalsePositiveProbability() {
+        return Math.pow((double) bitCount() / bitSize, hashCount);
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return "SemVerBloomFilter{bits=" + bitSize + ", hashes=" + hashCount + "}";
+    }
+
+
+    // Serialization
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param out output to write to
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(@NonNull DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(hashCount);
+        out.writeInt(words.length());
+        for (int i = 0; i < words.length(); i++) {
+            out.writeLong(words.get(i));
+        }
+    }
+
+    /**
+     * Read a filter written by {@link #writeTo(DataOutput)}, up to the largest size a filter can have.
+     *
+     * @param in input to read from
+     *
+     * @return the filter read
+     *
+     * @throws IOException if an I/O error occurs, or if the data read is not a filter
+     */
+    public static @NonNull SemVerBloomFilter readFrom(@NonNull DataInput in) throws IOException {
+        return readFrom(in, (long) MAX_WORDS * 64);
+    }
+
+    /**
+     * Read a filter written by {@link #writeTo(DataOutput)}, rejecting filters larger than expected before allocating
+     * them: use it for filters received from the network.
+     *
+     * @param in input to read from
+     * @param maxBitSize maximum number of bits of the filter read
+     *
+     * @return the filter read
+     *
+     * @throws IOException if an I/O error occurs, if the data read is not a filter, or if the filter is too large
+     */
+    public static @NonNull SemVerBloomFilter readFrom(@NonNull DataInput in, @Positive long maxBitSize) throws IOException {
+        if (in.readInt() != MAGIC)
+            throw new IOException("Corrupted version filter");
+        final int hashCount = in.readUnsignedByte();
+        final int wordCount = in.readInt();
+        if (hashCount == 0 || wordCount <= 0 || wordCount > MAX_WORDS)
+            throw new IOException("Corrupted version filter");
+        if ((long) wordCount * 64 > maxBitSize)
+            throw new IOException("Version filter too large: " + (long) wordCount * 64 + " bits, maximum " + maxBitSize);
+
+        final long[] words = new long[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = in.readLong();
+        }
+        return new SemVerBloomFilter(hashCount, words);
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    /**
+     * @return a 64 bits hash of the version of an artifact, build meta data being ignored
+     */
+    private static long hash(long artifact, @NonNull SemVer version) {
+        // Raw numbers: packed order keys saturate, and would make large versions collide
+        long hash = mix(((long) version.major << 32) | (version.minor & 0xFFFFFFFFL));
+        hash = mix(hash ^ (((long) version.patch << 32) | (version.preReleaseHash() & 0xFFFFFFFFL)));
+        return mix(hash ^ artifact);
+    }
+
+    /**
+     * @return the seed of the versions of an artifact, between 0 and 2^32 - 1
+     */
+    private static long artifactSeed(@NonNull String artifact) {
+        return artifact.hashCode() & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Bit indexes are derived from the two halves of the hash: <code>low + i * high</code>.
+     */
+    private boolean put(long hash) {
+        final long low = (int) hash;
+        final long high = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 1; i <= hashCount; i++) {
+            final long bit = ((low + i * high) & Long.MAX_VALUE) % bitSize;
+            changed |= orWord((int) (bit >>> 6), 1L << bit);
+        }
+        return changed;
+    }
+
+    private boolean mightContain(long hash) {
+        final long low = (int) hash;
+        final long high = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            final long bit = ((low + i * high) & Long.MAX_VALUE) % bitSize;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if a bit was set
+     */
+    private boolean orWord(int index, long bits) {
+        long current;
+        do {
+            current = words.get(index);
+            if ((current | bits) == current)
+                return false;
+        } while (!words.compareAndSet(index, current, current | bits));
+        return true;
+    }
+
+    /**
+     * Finalization step of MurmurHash3, spreading every bit of the input over the output.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
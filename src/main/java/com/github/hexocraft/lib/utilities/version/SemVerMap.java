@@ -0,0 +1,394 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+
+/**
+ * <p>Map sorted by {@link SemVer}, for per-version data like configuration migration steps or schemas.
+ *
+ * <p>Entries are stored in sorted parallel arrays: a primitive key packing the version numbers, the version and the
+ * value. Lookups are binary searches on the primitive keys, {@link SemVer#compareTo(SemVer)} being only called
+ * between pre-releases of the same version. Insertions and removals shift the arrays: the map suits data registered
+ * once and read many times.
+ *
+ * <p>Like a {@link java.util.TreeMap}, keys are equal when {@link SemVer#compareTo(SemVer)} returns 0: build meta
+ * data is ignored. Null keys are not supported, null values are.
+ *
+ * <pre>
+ * SemVerMap&lt;Migration&gt; migrations = new SemVerMap&lt;&gt;();
+ * migrations.put(new SemVer("1.2.0"), new RenameKeys());
+ * for (Migration migration : migrations.migrations(storedVersion, currentVersion)) ...
+ * </pre>
+ *
+ * <p>This class is not thread safe.
+ *
+ * @param <V> type of the values
+ */
+@SuppressWarnings("WeakerAccess")
+public final class SemVerMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Packed keys, see {@link SemVers#orderKey(SemVer)}.
+     */
+    private @NonNull long[] keys;
+
+    /**
+     * Versions, in the order of the keys.
+     */
+    private @NonNull SemVer[] versions;
+
+    /**
+     * Values, in the order of the keys.
+     */
+    private @Nullable Object[] values;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+
+    public SemVerMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity initial number of entries
+     */
+    public SemVerMap(@NonNegative int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        this.keys = new long[capacity];
+        this.versions = new SemVer[capacity];
+        this.values = new Object[capacity];
+    }
+
+
+    // Modification
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param version key
+     * @param value value
+     *
+     * @return the previous value of the key, null if none
+     */
+    public @Nullable V put(@NonNull SemVer version, @Nullable V value) {
+        final long key = SemVers.orderKey(version);
+        int index = indexOf(key, version);
+        if (index >= 0) {
+            // The key is kept, like in a TreeMap
+            final V previous = valueAt(index);
+            values[index] = value;
+            return previous;
+        }
+
+        index = -index - 1;
+        if (size == keys.length)
+            grow();
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(versions, index, versions, index + 1, size - index);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        keys[index] = key;
+        versions[index] = version;
+        values[index] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * @param version key
+     *
+     * @return the value removed, null if none
+     */
+    public @Nullable V remove(@NonNull SemVer version) {
+        final int index = indexOf(SemVers.orderKey(version), version);
+        if (index < 0)
+            return null;
+
+        final V previous = valueAt(index);
+        final int moved = size - index - 1;
+        System.arraycopy(keys, index + 1, keys, index, moved);
+        System.arraycopy(versions, index + 1, versions, index, moved);
+        System.arraycopy(values, index + 1, values, index, moved);
+        size--;
+        versions[size] = null;
+        values[size] = null;
+        return previous;
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public void clear() {
+        Arrays.fill(versions, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+
+    // Lookups
+    //--------------------------------------------------------------------------
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param version key
+     *
+     * @return the value of the key, null if none
+     */
+    public @Nullable V get(@NonNull SemVer version) {
+        final int index = indexOf(SemVers.orderKey(version), version);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    /**
+     * @param version key
+     *
+     * @return true if the map contains the key
+     */
+    public boolean containsKey(@NonNull SemVer version) {
+        return indexOf(SemVers.orderKey(version), version) >= 0;
+    }
+
+    /**
+     * @return the entry with the smallest version, null if the map is empty
+     */
+    public Map.@Nullable Entry<SemVer, V> firstEntry() {
+        return entryAt(0);
+    }
+
+    /**
+     * @return the entry with the greatest version, null if the map is empty
+     */
+    public Map.@Nullable Entry<SemVer, V> lastEntry() {
+        return entryAt(size - 1);
+    }
+
+    /**
+     * @param version version
+     *
+     * @return the entry with the greatest version less than or equal to the given one, null if none
+     */
+    public Map.@Nullable Entry<SemVer, V> floorEntry(@NonNull SemVer version) {
+        final int index = indexOf(SemVers.orderKey(version), version);
+        return entryAt(index >= 0 ? index : -index - 2);
+    }
+
+    /**
+     * @param version version
+     *
+     * @return the entry with the smallest version greater than or equal to the given one, null if none
+     */
+    public Map.@Nullable Entry<SemVer, V> ceilingEntry(@NonNull SemVer version) {
+        final int index = indexOf(SemVers.orderKey(version), version);
+        return entryAt(index >= 0 ? index : -index - 1);
+    }
+
+    /**
+     * @param version version
+     *
+     * @return the entry with the greatest version strictly less than the given one, null if none
+     */
+    public Map.@Nullable Entry<SemVer, V> lowerEntry(@NonNull SemVer version) {
+        final int index = indexOf(SemVers.orderKey(version), version);
+        return entryAt(index >= 0 ? index - 1 : -index - 2);
+    }
+
+    /**
+     * @param version version
+     *
+     * @return the entry with the smallest version strictly greater than the given one, null if none
+     */
+    public Map.@Nullable Entry<SemVer, V> higherEntry(@NonNull SemVer version) {
+        final int index = indexOf(SemVers.orderKey(version), version);
+        return entryAt(index >= 0 ? index + 1 : -index - 1);
+    }
+
+    /**
+     * @param from lowest version, inclusive
+     * @param to highest version, exclusive
+     *
+     * @return a new map with the entries from a version to another one
+     */
+    public @NonNull SemVerMap<V> subMap(@NonNull SemVer from, @NonNull SemVer to) {
+        return subMap(from, true, to, false);
+    }
+
+    /**
+     * @param from lowest version
+     * @param fromInclusive true to include the lowest version
+     * @param to highest version
+     * @param toInclusive true to include the highest version
+     *
+     * @return a new map with the entries from a version to another one
+     */
+    public @NonNull SemVerMap<V> subMap(@NonNull SemVer from, boolean fromInclusive, @NonNull SemVer to, boolean toInclusive) {
+        final int start = rangeStart(from, fromInclusive);
+        final int end = Math.max(start, rangeEnd(to, toInclusive));
+        final SemVerMap<V> map = new SemVerMap<>(end - start);
+        System.arraycopy(keys, start, map.keys, 0, end - start);
+        System.arraycopy(versions, start, map.versions, 0, end - start);
+        System.arraycopy(values, start, map.values, 0, end - start);
+        map.size = end - start;
+        return map;
+    }
+
+    /**
+     * Values to apply to go from a version to another one, like migration steps: the values of the versions greater
+     * than the first version, up to the second version included.
+     *
+     * @param from current version, excluded
+     * @param to target version, included
+     *
+     * @return the values, in ascending order of versions (empty if the target version is not greater)
+     */
+    public @NonNull List<V> migrations(@NonNull SemVer from, @NonNull SemVer to) {
+        final int start = rangeStart(from, false);
+        final int end = rangeEnd(to, true);
+        if (start >= end)
+            return Collections.emptyList();
+
+        final List<V> steps = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            steps.add(valueAt(i));
+        }
+        return steps;
+    }
+
+    /**
+     * @return the versions, in ascending order
+     */
+    public @NonNull List<SemVer> keys() {
+        return Collections.unmodifiableList(Arrays.asList(versions).subList(0, size));
+    }
+
+    /**
+     * @return the values, in ascending order of versions
+     */
+    public @NonNull List<V> values() {
+        final List<V> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(valueAt(i));
+        }
+        return list;
+    }
+
+    /**
+     * @param action action called for each entry, in ascending order of versions
+     */
+    public void forEach(@NonNull BiConsumer<? super SemVer, ? super V> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(versions[i], valueAt(i));
+        }
+    }
+
+    @Override
+    public @NonNull String toString() {
+        final StringBuilder ret = new StringBuilder("{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) ret.append(", ");
+            ret.append(versions[i]).append('=').append(values[i]);
+        }
+        return ret.append('}').toString();
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    /**
+     * Binary search on the packed keys, versions being only compared when their keys are equal.
+     *
+     * @return the index of the version, or <code>-(insertion point) - 1</code>
+     */
+    private int indexOf(long key, @NonNull SemVer version) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final long midKey = keys[mid];
+            final int comparison = midKey < key ? -1 : midKey > key ? 1 : versions[mid].compareTo(version);
+            if (comparison < 0)
+                low = mid + 1;
+            else if (comparison > 0)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * @return the index of the first entry of a range
+     */
+    private int rangeStart(@NonNull SemVer from, boolean inclusive) {
+        final int index = indexOf(SemVers.orderKey(from), from);
+        return index >= 0 ? (inclusive ? index : index + 1) : -index - 1;
+    }
+
+    /**
+     * @return the index after the last entry of a range
+     */
+    private int rangeEnd(@NonNull SemVer to, boolean inclusive) {
+        final int index = indexOf(SemVers.orderKey(to), to);
+        return index >= 0 ? (inclusive ? index + 1 : index) : -index - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private @Nullable V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    private Map.@Nullable Entry<SemVer, V> entryAt(int index) {
+        if (index < 0 || index >= size)
+            return null;
+        return new AbstractMap.SimpleImmutableEntry<>(versions[index], valueAt(index));
+    }
+
+    private void grow() {
+        final int capacity = Math.max(DEFAULT_CAPACITY, keys.length + (keys.length >> 1));
+        keys = Arrays.copyOf(keys, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+}
@@ -0,0 +1,220 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.stream.Collector;
+
+
+/**
+ * <p>Sorting of large {@link SemVer} collections, like the versions listed by a remote repository.
+ *
+ * <p>Each version is reduced to a primitive key packing its numbers and a pre-release flag. The keys are sorted with
+ * {@link Arrays#parallelSort(long[])}, and {@link SemVer#compareTo(SemVer)} is only called to order the pre-releases
+ * sharing the same numbers. The order is the same as {@link java.util.Collections#sort(List)}, and the sort is stable.
+ *
+ * <p>Numbers too large to be packed (major above 1048575, minor or patch above 2097151) share saturated keys, and
+ * are ordered with {@link SemVer#compareTo(SemVer)} as well.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class SemVers {
+
+    private static final int MAJOR_BITS = 20;
+    private static final int NUMBER_BITS = 21;
+
+    /**
+     * Low bits of a key set when a number is saturated: patch bits and pre-release flag.
+     */
+    private static final long SATURATED = (1L << (NUMBER_BITS + 1)) - 1;
+
+
+    private SemVers() {
+        throw new IllegalAccessError("This is a private constructor");
+    }
+
+
+    // Sort
+    //--------------------------------------------------------------------------
+
+    /**
+     * Sort a list of versions in ascending order.
+     *
+     * @param versions versions to sort, in place
+     */
+    public static void sort(@NonNull List<SemVer> versions) {
+        final SemVer[] sorted = sortedArray(versions);
+        final ListIterator<SemVer> it = versions.listIterator();
+        for (SemVer version : sorted) {
+            it.next();
+            it.set(version);
+        }
+    }
+
+    /**
+     * Sort versions in ascending order, without duplicates.
+     *
+     * @param versions versions to sort, left untouched
+     *
+     * @return a new sorted list, where the versions are all different ({@link SemVer#equals(Object)})
+     */
+    public static @NonNull List<SemVer> sortDistinct(@NonNull List<SemVer> versions) {
+        final SemVer[] sorted = sortedArray(versions);
+        List<SemVer> distinct = new ArrayList<>(sorted.length);
+
+        // Versions comparing equal may still differ by their build meta data: look back over the whole run
+        int runStart = 0;
+        for (SemVer version : sorted) {
+            if (distinct.isEmpty() || distinct.get(distinct.size() - 1).compareTo(version) != 0)
+                runStart = distinct.size();
+            else if (distinct.subList(runStart, distinct.size()).contains(version))
+                continue;
+            distinct.add(version);
+        }
+        return distinct;
+    }
+
+    /**
+     * @return a {@link Collector} accumulating versions into a sorted list without duplicates, see {@link #sortDistinct(List)}
+     */
+    public static @NonNull Collector<SemVer, ?, List<SemVer>> toSortedDistinctList() {
+        return Collector.<SemVer, List<SemVer>, List<SemVer>>of(ArrayList::new, List::add, (left, right) -> {
+            left.addAll(right);
+            return left;
+        }, SemVers::sortDistinct);
+    }
+
+
+    // Diff
+    //--------------------------------------------------------------------------
+
+    /**
+     * {@link SemVer#diff(SemVer)} of each pair of versions of parallel arrays, e.g. installed and available versions
+     * of pending updates.
+     *
+     * @param from versions to compare
+     * @param to other versions, at the same indexes
+     * @param diffs results, at the same indexes
+     *
+     * @throws IllegalArgumentException if the arrays do not have the same length
+     */
+    public static void diff(@NonNull SemVer[] from, @NonNull SemVer[] to, @NonNull long[] diffs) {
+        if (from.length != to.length || from.length != diffs.length)
+            throw new IllegalArgumentException("Invalid lengths: " + from.length + ", " + to.length + ", " + diffs.length);
+        for (int i = 0; i < from.length; i++) {
+            diffs[i] = from[i].diff(to[i]);
+        }
+    }
+
+    /**
+     * @param diffs results of {@link SemVer#diff(SemVer)}
+     *
+     * @return the number of each kind of change, indexed by {@link SemVer.Change#ordinal()}
+     */
+    public static @NonNull int[] countChanges(@NonNull long[] diffs) {
+        final int[] counts = new int[SemVer.Change.values().length];
+        for (long diff : diffs) {
+            counts[SemVer.Change.of(diff).ordinal()]++;
+        }
+        return counts;
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    private static @NonNull SemVer[] sortedArray(@NonNull List<SemVer> versions) {
+        final SemVer[] array = versions.toArray(new SemVer[0]);
+        final int size = array.length;
+        if (size < 2)
+            return array;
+
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = orderKey(array[i]);
+        }
+
+        final long[] sortedKeys = keys.clone();
+        Arrays.parallelSort(sortedKeys);
+
+        // Place each version in the run of its key, in encounter order
+        final SemVer[] sorted = new SemVer[size];
+        final int[] used = new int[size];
+        for (int i = 0; i < size; i++) {
+            final int runStart = runStart(sortedKeys, keys[i]);
+            sorted[runStart + used[runStart]++] = array[i];
+        }
+
+        // Only pre-releases sharing the same numbers, or saturated keys, still need to be compared
+        for (int runStart = 0; runStart < size; runStart += used[runStart]) {
+            final long key = sortedKeys[runStart];
+            if (used[runStart] > 1 && ((key & 1) == 0 || (key & SATURATED) == SATURATED))
+                Arrays.sort(sorted, runStart, runStart + used[runStart]);
+        }
+        return sorted;
+    }
+
+    /**
+     * Pack the numbers of a version and a flag set for the versions without pre-release into a key ordered like the
+     * versions: a smaller key is a smaller version. Versions with equal keys must be compared with
+     * {@link SemVer#compareTo(SemVer)}: they are pre-releases of the same version, or have numbers too large to be
+     * packed. A number too large saturates its bits and the following ones, a negative number clears them.
+     *
+     * @param version version
+     *
+     * @return the key, never negative
+     */
+    static long orderKey(@NonNull SemVer version) {
+        if (version.major < 0)
+            return 0;
+        if (version.major >>> MAJOR_BITS != 0)
+            return Long.MAX_VALUE;
+        final long major = (long) version.major << (2 * NUMBER_BITS + 1);
+        if (version.minor < 0)
+            return major;
+        if (version.minor >>> NUMBER_BITS != 0)
+            return major | ((1L << (2 * NUMBER_BITS + 1)) - 1);
+        final long minor = (long) version.minor << (NUMBER_BITS + 1);
+        if (version.patch < 0)
+            return major | minor;
+        if (version.patch >>> NUMBER_BITS != 0)
+            return major | minor | SATURATED;
+        return major | minor | (long) version.patch << 1 | (version.hasPreRelease() ? 0 : 1);
+    }
+
+    /**
+     * @return the index of the first occurrence of a key in sorted keys
+     */
+    private static int runStart(@NonNull long[] sortedKeys, long key) {
+        int low = 0;
+        int high = sortedKeys.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (sortedKeys[mid] < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
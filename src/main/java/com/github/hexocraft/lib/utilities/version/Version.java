@@ -23,8 +23,12 @@ import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 
 
 /**
@@ -51,7 +55,17 @@ public final class Version implements Comparable<Version> {
     /**
      * If the version is Semantic Versioning compliant.
      */
-    private final @Nullable SemVer semver;
+    private final boolean semVerCompliant;
+
+    /**
+     * String the version was parsed from, null if built from numbers.
+     */
+    private final @Nullable String source;
+
+    /**
+     * Full Semantic Versioning representation, built on demand.
+     */
+    private @Nullable SemVer semver;
 
 
     /**
@@ -63,70 +77,176 @@ public final class Version implements Comparable<Version> {
         this.major = major;
         this.minor = minor;
         this.patch = patch;
-        this.semver = new SemVer(major, minor, patch);
+        this.semVerCompliant = true;
+        this.source = null;
     }
 
     /**
      * Construct a {@link Version} object by parsing a string.
      *
+     * <p>Only the version numbers are read here. The full {@link SemVer}, with pre-release and build meta data tags,
+     * is built the first time it is needed.
+     *
+     * <p>If the string is not Semantic Versioning compliant, the version number is extracted with
+     * {@link VersionExtractor} default rules.
+     *
      * @param version semver string to parse
      */
     public Version(@NonNull String version) {
+        this(version, SemVer.isSemver(version) ? null : requireExtracted(version));
+    }
 
-        // Check if it is Semantic Versioning compliant
-        this.semver = SemVer.parse(version);
-
-        // The version string is Semantic Versioning compliant
-        if (this.semver != null) {
-            this.major = semver.major;
-            this.minor = semver.minor;
-            this.patch = semver.patch;
+    /**
+     * @param version version string
+     * @param extracted version extracted from the string, null if the version is Semantic Versioning compliant
+     */
+    private Version(@NonNull String version, @Nullable Version extracted) {
+        this.source = version;
+        this.semVerCompliant = extracted == null;
+
+        // The version string is Semantic Versioning compliant: numbers are the leading ones
+        if (extracted == null) {
+            final int minorStart = version.indexOf('.') + 1;
+            final int patchStart = version.indexOf('.', minorStart) + 1;
+            this.major = parseNumber(version, 0);
+            this.minor = parseNumber(version, minorStart);
+            this.patch = parseNumber(version, patchStart);
         }
 
-        // Try to extract a version number
+        // Version number extracted from the string
         else {
-            Pattern pattern1 = Pattern.compile("(?:.*)([0-9]+)\\.([0-9]+)\\.([0-9]+).*", Pattern.CASE_INSENSITIVE);
-            Matcher matcher1 = pattern1.matcher(version);
-
-            if (matcher1.matches() && matcher1.groupCount() == 3) {
-                this.major = Integer.parseInt(matcher1.group(1));
-                this.minor = Integer.parseInt(matcher1.group(2));
-                this.patch = Integer.parseInt(matcher1.group(3));
-                return;
-            }
-
-            Pattern pattern2 = Pattern.compile("(?:.*)([0-9]+)\\.([0-9]+).*", Pattern.CASE_INSENSITIVE);
-            Matcher matcher2 = pattern2.matcher(version);
-
-            if (matcher2.matches() && matcher2.groupCount() == 2) {
-                this.major = Integer.parseInt(matcher2.group(1));
-                this.minor = Integer.parseInt(matcher2.group(2));
-                this.patch = 0;
-                return;
-            }
-
-            // No version found in the string
-            throw new IllegalArgumentException("Invalid version number: " + version);
+            this.major = extracted.major;
+            this.minor = extracted.minor;
+            this.patch = extracted.patch;
         }
     }
 
+    /**
+     * Version number extracted from a string which is not Semantic Versioning compliant.
+     *
+     * @param version version string, may be null
+     * @param major major version number
+     * @param minor minor version number
+     * @param patch patch level
+     */
+    Version(@Nullable String version, @NonNegative int major, @NonNegative int minor, @NonNegative int patch) {
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        this.semVerCompliant = false;
+        this.source = version;
+    }
+
+    /**
+     * @param semver Semantic Versioning compliant version
+     */
+    Version(@NonNull SemVer semver) {
+        this.major = semver.major;
+        this.minor = semver.minor;
+        this.patch = semver.patch;
+        this.semVerCompliant = true;
+        this.source = null;
+        this.semver = semver;
+    }
+
 
     // Helper functions
     //--------------------------------------------------------------------------
 
     public boolean isSemVer() {
-        return semver != null;
+        return semVerCompliant;
+    }
+
+    /**
+     * @return the {@link SemVer} representation of this version, null if not Semantic Versioning compliant
+     */
+    public @Nullable SemVer toSemVer() {
+        if (!semVerCompliant)
+            return null;
+        // Racy but safe: SemVer is immutable and equal instances are interchangeable
+        SemVer semVer = this.semver;
+        if (semVer == null) {
+            semVer = source != null ? new SemVer(source) : new SemVer(major, minor, patch);
+            this.semver = semVer;
+        }
+        return semVer;
     }
 
     @Override
     public String toString() {
-        if (semver != null)
-            return semver.toString();
+        if (semVerCompliant)
+            return toSemVer().toString();
         else {
             return String.valueOf(major) + '.' + minor + '.' + patch;
         }
     }
 
+    /**
+     * @return the number of bytes written by {@link #writeUtf8(ByteBuffer)}, also the length of {@link #toString()}
+     */
+    public int encodedLength() {
+        if (hasText())
+            return toSemVer().encodedLength();
+        return numberLength(major) + numberLength(minor) + numberLength(patch) + 2;
+    }
+
+    /**
+     * Append this version to a builder, without intermediate string.
+     *
+     * @param out builder to append to
+     *
+     * @return the builder
+     */
+    public @NonNull StringBuilder appendTo(@NonNull StringBuilder out) {
+        if (hasText())
+            return toSemVer().appendTo(out);
+        return out.append(major).append('.').append(minor).append('.').append(patch);
+    }
+
+    /**
+     * Append this version to an output, without intermediate string.
+     *
+     * @param out output to append to
+     * @param <A> type of the output
+     *
+     * @return the output
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public <A extends Appendable> @NonNull A appendTo(@NonNull A out) throws IOException {
+        if (hasText())
+            return toSemVer().appendTo(out);
+        appendNumber(out, major);
+        out.append('.');
+        appendNumber(out, minor);
+        out.append('.');
+        appendNumber(out, patch);
+        return out;
+    }
+
+    /**
+     * Write this version encoded in UTF-8 at the position of a buffer, without intermediate array. The position is
+     * advanced by {@link #encodedLength()}.
+     *
+     * @param buffer buffer to write to
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has less than {@link #encodedLength()} bytes remaining,
+     * nothing being written
+     */
+    public void writeUtf8(@NonNull ByteBuffer buffer) {
+        if (hasText()) {
+            toSemVer().writeUtf8(buffer);
+            return;
+        }
+        if (buffer.remaining() < encodedLength())
+            throw new BufferOverflowException();
+        putNumber(buffer, major);
+        buffer.put((byte) '.');
+        putNumber(buffer, minor);
+        buffer.put((byte) '.');
+        putNumber(buffer, patch);
+    }
+
     public boolean isGreaterThan(@NonNull Version other) {
         return this.compareTo(other) > 0;
     }
@@ -169,12 +289,10 @@ public final class Version implements Comparable<Version> {
      * @return {@link Version} if the string is semver compliant else null
      */
     public static @Nullable Version parse(@NonNull String version) {
-        try {
-            return new Version(version);
-        }
-        catch (Exception e) {
-            return null;
-        }
+        if (SemVer.isSemver(version))
+            return new Version(version, null);
+
+        return VersionExtractor.scan(version, 0, 2, true);
     }
 
     /**
@@ -196,7 +314,7 @@ public final class Version implements Comparable<Version> {
      * @return true if valid
      */
     public static boolean isSemVer(@NonNull String version) {
-        return SemVer.parse(version) != null;
+        return SemVer.isSemver(version);
     }
 
     /**
@@ -207,7 +325,70 @@ public final class Version implements Comparable<Version> {
      * @return true if valid
      */
     public static boolean isSemVer(@NonNull JavaPlugin plugin) {
-        return SemVer.parse(plugin) != null;
+        return SemVer.isSemver(plugin);
+    }
+
+
+    // Serialization
+    //--------------------------------------------------------------------------
+
+    /**
+     * Write this version in a compact binary form.
+     *
+     * @param out output to write to
+     *
+     * @throws IOException if an I/O error occurs
+     *
+     * @see VersionCodec
+     */
+    public void writeTo(@NonNull DataOutput out) throws IOException {
+        final SemVer semVer = toSemVer();
+        if (semVer != null) {
+            out.writeByte(VersionCodec.VERSION_SEMVER);
+            semVer.writeTo(out);
+        }
+        else {
+            out.writeByte(VersionCodec.VERSION_NUMBERS);
+            VersionCodec.writeVarInt(out, major);
+            VersionCodec.writeVarInt(out, minor);
+            VersionCodec.writeVarInt(out, patch);
+        }
+    }
+
+    /**
+     * Read a version written by {@link #writeTo(DataOutput)}, without parsing.
+     *
+     * @param in input to read from
+     *
+     * @return the version read
+     *
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the data read is not a valid version
+     */
+    public static @NonNull Version readFrom(@NonNull DataInput in) throws IOException {
+        final byte kind = in.readByte();
+        if (kind == VersionCodec.VERSION_SEMVER)
+            return new Version(SemVer.readFrom(in));
+        if (kind != VersionCodec.VERSION_NUMBERS)
+            throw new IllegalArgumentException("Invalid version kind: " + kind);
+        return fromNumbers(VersionCodec.readVarInt(in), VersionCodec.readVarInt(in), VersionCodec.readVarInt(in));
+    }
+
+    /**
+     * Version not Semantic Versioning compliant, read without its string.
+     *
+     * @param major major version number
+     * @param minor minor version number
+     * @param patch patch level
+     *
+     * @return the version
+     *
+     * @throws IllegalArgumentException if a number is negative
+     */
+    static @NonNull Version fromNumbers(int major, int minor, int patch) {
+        if (major < 0 || minor < 0 || patch < 0)
+            throw new IllegalArgumentException("Invalid version numbers: " + major + "." + minor + "." + patch);
+        return new Version(null, major, minor, patch);
     }
 
 
@@ -223,20 +404,21 @@ public final class Version implements Comparable<Version> {
     @Override
     public int compareTo(@NonNull Version other) {
 
-        if (semver != null && other.semver != null) {
-            return semver.compareTo(other.semver);
-        } else {
-            // Major
-            int comparison = (Integer.compare(major, other.major));
-            if (comparison != 0) return comparison;
+        // Major
+        int comparison = (Integer.compare(major, other.major));
+        if (comparison != 0) return comparison;
 
-            // Minor
-            comparison = (Integer.compare(minor, other.minor));
-            if (comparison != 0) return comparison;
+        // Minor
+        comparison = (Integer.compare(minor, other.minor));
+        if (comparison != 0) return comparison;
 
-            // Patch
-            comparison = (Integer.compare(patch, other.patch));
-            if (comparison != 0) return comparison;
+        // Patch
+        comparison = (Integer.compare(patch, other.patch));
+        if (comparison != 0) return comparison;
+
+        // Pre-release, only parsed when the numbers are equal
+        if (semVerCompliant && other.semVerCompliant && (hasTags() || other.hasTags())) {
+            return toSemVer().compareTo(other.toSemVer());
         }
 
         return 0;
@@ -251,12 +433,18 @@ public final class Version implements Comparable<Version> {
 
         Version version = (Version) other;
 
-        if (semver != null) {
-            return semver.equals(version.semver);
-        } else {
+        if (major != version.major || minor != version.minor || patch != version.patch)
+            return false;
 
-            return (major == version.major && minor == version.minor && patch == version.patch);
+        if (semVerCompliant) {
+            if (!version.semVerCompliant)
+                return false;
+            if (!hasTags() && !version.hasTags())
+                return true;
+            return toSemVer().equals(version.toSemVer());
         }
+
+        return true;
     }
 
     @Override
@@ -266,4 +454,88 @@ public final class Version implements Comparable<Version> {
         result = 31 * result + patch;
         return result;
     }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    /**
+     * @return true if the string of this version is the one of its {@link SemVer}, which may have tags
+     */
+    private boolean hasText() {
+        return semVerCompliant && (source != null || semver != null);
+    }
+
+    private static int numberLength(int value) {
+        long remaining = value;
+        int length = 1;
+        if (remaining < 0) {
+            remaining = -remaining;
+            length++;
+        }
+        while (remaining >= 10) {
+            remaining /= 10;
+            length++;
+        }
+        return length;
+    }
+
+    private static void appendNumber(@NonNull Appendable out, int value) throws IOException {
+        long remaining = value;
+        if (remaining < 0) {
+            out.append('-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (remaining / divisor >= 10) divisor *= 10;
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + remaining / divisor % 10));
+        }
+    }
+
+    private static void putNumber(@NonNull ByteBuffer buffer, int value) {
+        long remaining = value;
+        if (remaining < 0) {
+            buffer.put((byte) '-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (remaining / divisor >= 10) divisor *= 10;
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + remaining / divisor % 10));
+        }
+    }
+
+    /**
+     * @return true if the version may have pre-release or build meta data tags
+     */
+    private boolean hasTags() {
+        if (source != null)
+            return source.indexOf('-') >= 0 || source.indexOf('+') >= 0;
+        final SemVer semVer = this.semver;
+        return semVer != null && semVer.hasTags();
+    }
+
+    private static @NonNull Version requireExtracted(@NonNull String version) {
+        final Version extracted = VersionExtractor.scan(version, 0, 2, true);
+        if (extracted == null) {
+            // No version found in the string
+            throw new IllegalArgumentException("Invalid version number: " + version);
+        }
+        return extracted;
+    }
+
+    /**
+     * Parse the digits starting at an index, already validated by {@link SemVer#check(CharSequence)}.
+     */
+    private static int parseNumber(@NonNull String version, @NonNegative int from) {
+        int value = 0;
+        for (int i = from; i < version.length(); i++) {
+            final char c = version.charAt(i);
+            if (c < '0' || c > '9')
+                break;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
 }
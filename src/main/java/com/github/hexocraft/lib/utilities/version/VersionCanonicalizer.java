@@ -0,0 +1,419 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * <p>Reduce the many ways a version is written by update sources to a single canonical {@link SemVer}:
+ * "v1.2", "1.2" and "1.2.0" all give "1.2.0", "1.2.0-SNAPSHOT" and "1.2-snapshot" both give "1.2.0-snapshot".
+ *
+ * <p>By default:
+ *
+ * <ul>
+ * <li>a leading 'v' or 'V' is removed ({@link #stripPrefix(boolean)}),
+ * <li>missing minor and patch numbers are set to 0 ({@link #padNumbers(boolean)}),
+ * <li>pre-release tags are lower cased ({@link #lowerCaseTags(boolean)}),
+ * <li>build meta data is kept ({@link #dropBuildMetaData(boolean)}).
+ * </ul>
+ *
+ * <p>Leading zeros of numbers and of numeric pre-release tags are always removed, as well as surrounding spaces:
+ * "1.2.0-rc-01" gives "1.2.0-rc-1", pre-release tags being split on '-' like in {@link SemVer}. Strings that still are
+ * not Semantic Versioning compliant have no canonical version, nor have strings with an empty pre-release or build
+ * meta data, like "1.2.0-" or "1.2.0+".
+ *
+ * <p>Results can be cached per distinct string, in a bounded concurrent cache: a cached lookup is a single hash probe,
+ * without lock. Variants of a version share the same canonical instance while it is cached. When the cache is full,
+ * entries are evicted with the clock (second chance) policy: an entry looked up since the clock hand last passed it is
+ * kept, and the entry just added is never evicted. A lookup of a variant also marks the entry of its canonical string,
+ * which stays cached while any variant is used. Configure the canonicalizer before sharing it: canonicalization is
+ * thread safe, configuration is not.
+ *
+ * <pre>
+ * VersionCanonicalizer canonicalizer = new VersionCanonicalizer().cacheSize(1024);
+ * SemVer latest = canonicalizer.canonicalize(updateSource.latestVersion());
+ * </pre>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class VersionCanonicalizer {
+
+    /**
+     * Cached canonical version of a string.
+     */
+    private static final class Entry {
+        final @NonNull SemVer version;
+
+        /**
+         * Entry of the canonical string, this entry for the canonical string itself.
+         */
+        final @NonNull Entry canonical;
+
+        /**
+         * Set when looked up, cleared when the clock hand passes. Racy, a lost update only costs an eviction.
+         */
+        boolean referenced;
+
+        Entry(@NonNull SemVer version) {
+            this.version = version;
+            this.canonical = this;
+        }
+
+        Entry(@NonNull Entry canonical) {
+            this.version = canonical.version;
+            this.canonical = canonical;
+        }
+
+        void reference() {
+            // Avoid writing shared cache lines when already set
+            if (!referenced)
+                referenced = true;
+            if (!canonical.referenced)
+                canonical.referenced = true;
+        }
+    }
+
+    /**
+     * Marker stored for the strings without canonical version.
+     */
+    private static final SemVer NOT_FOUND = new SemVer(0, 0, 0);
+
+    /**
+     * If a leading 'v' is removed.
+     */
+    private boolean stripPrefix = true;
+
+    /**
+     * If missing minor and patch numbers are set to 0.
+     */
+    private boolean padNumbers = true;
+
+    /**
+     * If pre-release tags are lower cased.
+     */
+    private boolean lowerCaseTags = true;
+
+    /**
+     * If build meta data is removed.
+     */
+    private boolean dropBuildMetaData = false;
+
+    /**
+     * Maximum number of cached strings, 0 to disable the cache.
+     */
+    private int cacheSize = 0;
+
+    /**
+     * Canonical versions of the cached strings, canonical strings being mapped to the shared instance. Null if the
+     * cache is disabled.
+     */
+    private @Nullable ConcurrentHashMap<String, Entry> cache;
+
+    /**
+     * Clock hand of the eviction, only used under the eviction lock.
+     */
+    private @Nullable Iterator<Map.Entry<String, Entry>> hand;
+
+    /**
+     * Lock of the eviction: lookups never take it.
+     */
+    private final @NonNull Object evictionLock = new Object();
+
+
+    // Configuration
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param stripPrefix true to remove a leading 'v' or 'V' (default), false to reject it.
+     *
+     * @return this canonicalizer
+     */
+    public VersionCanonicalizer stripPrefix(boolean stripPrefix) {
+        this.stripPrefix = stripPrefix;
+        clearCache();
+        return this;
+    }
+
+    /**
+     * @param padNumbers true to set missing minor and patch numbers to 0 (default), false to reject them.
+     *
+     * @return this canonicalizer
+     */
+    public VersionCanonicalizer padNumbers(boolean padNumbers) {
+        this.padNumbers = padNumbers;
+        clearCache();
+        return this;
+    }
+
+    /**
+     * @param lowerCaseTags true to lower case pre-release tags (default), false to keep them as is.
+     *
+     * @return this canonicalizer
+     */
+    public VersionCanonicalizer lowerCaseTags(boolean lowerCaseTags) {
+        this.lowerCaseTags = lowerCaseTags;
+        clearCache();
+        return this;
+    }
+
+    /**
+     * @param dropBuildMetaData true to remove build meta data, false to keep it (default).
+     *
+     * @return this canonicalizer
+     */
+    public VersionCanonicalizer dropBuildMetaData(boolean dropBuildMetaData) {
+        this.dropBuildMetaData = dropBuildMetaData;
+        clearCache();
+        return this;
+    }
+
+    /**
+     * @param cacheSize maximum number of cached strings, 0 to disable the cache (default).
+     *
+     * @return this canonicalizer
+     */
+    public VersionCanonicalizer cacheSize(@NonNegative int cacheSize) {
+        if (cacheSize < 0)
+            throw new IllegalArgumentException("Invalid cache size: " + cacheSize);
+        this.cacheSize = cacheSize;
+        this.cache = cacheSize == 0 ? null : new ConcurrentHashMap<>(Math.min(cacheSize, 1024) * 4 / 3 + 1);
+        this.hand = null;
+        return this;
+    }
+
+
+    // Canonicalization
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param version version string
+     *
+     * @return the canonical version, null if the string has none
+     */
+    public @Nullable SemVer canonicalize(@NonNull String version) {
+        final ConcurrentHashMap<String, Entry> cache = this.cache;
+        if (cache == null)
+            return doCanonicalize(version);
+
+        Entry cached = cache.get(version);
+        if (cached == null) {
+            final SemVer canonical = doCanonicalize(version);
+            if (canonical == null) {
+                cached = new Entry(NOT_FOUND);
+            }
+            else {
+                // Share the instance of the canonical string
+                Entry shared = new Entry(canonical);
+                final Entry previous = cache.putIfAbsent(canonical.toString(), shared);
+                if (previous != null && previous.version != NOT_FOUND)
+                    shared = previous;
+                shared.reference();
+                cached = shared.version.toString().equals(version) ? shared : new Entry(shared);
+            }
+            final Entry previous = cache.putIfAbsent(version, cached);
+            if (previous != null)
+                cached = previous;
+            evict(cache, version);
+        }
+        else {
+            cached.reference();
+        }
+        return cached.version == NOT_FOUND ? null : cached.version;
+    }
+
+    /**
+     * @param version version string
+     *
+     * @return the canonical string of the version, null if the string has none
+     */
+    public @Nullable String canonicalString(@NonNull String version) {
+        final SemVer canonical = canonicalize(version);
+        return canonical == null ? null : canonical.toString();
+    }
+
+    /**
+     * @param version1 first version string
+     * @param version2 second version string
+     *
+     * @return true if both strings have the same canonical version
+     */
+    public boolean isSameVersion(@NonNull String version1, @NonNull String version2) {
+        final SemVer canonical1 = canonicalize(version1);
+        return canonical1 != null && canonical1.equals(canonicalize(version2));
+    }
+
+    /**
+     * @return the current number of cached strings.
+     */
+    public int cachedCount() {
+        final ConcurrentHashMap<String, Entry> cache = this.cache;
+        return cache == null ? 0 : cache.size();
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param version version string
+     *
+     * @return true if the string is cached
+     */
+    boolean isCached(@NonNull String version) {
+        final ConcurrentHashMap<String, Entry> cache = this.cache;
+        return cache != null && cache.containsKey(version);
+    }
+
+    private void clearCache() {
+        if (cache != null)
+            cache.clear();
+        hand = null;
+    }
+
+    /**
+     * Evict entries with the clock policy until the cache fits its size. Concurrent insertions may briefly exceed it.
+     *
+     * @param added key just added, never evicted
+     */
+    private void evict(@NonNull ConcurrentHashMap<String, Entry> cache, @NonNull String added) {
+        if (cache.size() <= cacheSize)
+            return;
+
+        synchronized (evictionLock) {
+            // Each entry is passed at most twice: once to clear its mark, once to evict it
+            int steps = 2 * cache.size() + 2;
+            while (cache.size() > cacheSize && steps-- > 0) {
+                Iterator<Map.Entry<String, Entry>> it = hand;
+                if (it == null || !it.hasNext()) {
+                    it = cache.entrySet().iterator();
+                    hand = it;
+                    if (!it.hasNext())
+                        return;
+                }
+                final Map.Entry<String, Entry> candidate = it.next();
+                final Entry entry = candidate.getValue();
+                if (candidate.getKey().equals(added))
+                    continue;
+                if (entry.referenced)
+                    entry.referenced = false;
+                else
+                    cache.remove(candidate.getKey(), entry);
+            }
+        }
+    }
+
+    private @Nullable SemVer doCanonicalize(@NonNull String version) {
+        int i = 0;
+        int len = version.length();
+        while (i < len && version.charAt(i) <= ' ') i++;
+        while (len > i && version.charAt(len - 1) <= ' ') len--;
+        if (stripPrefix && i + 1 < len && (version.charAt(i) == 'v' || version.charAt(i) == 'V') && isDigit(version.charAt(i + 1)))
+            i++;
+
+        // Numbers
+        final StringBuilder text = new StringBuilder(len - i + 4);
+        int parts = 0;
+        while (parts < 3) {
+            final int end = skipDigits(version, i, len);
+            if (end == i)
+                return null;
+            appendNumber(text, version, i, end);
+            parts++;
+            i = end;
+            if (parts < 3 && i + 1 < len && version.charAt(i) == '.' && isDigit(version.charAt(i + 1))) {
+                text.append('.');
+                i++;
+            }
+            else {
+                break;
+            }
+        }
+        if (parts < 3) {
+            if (!padNumbers)
+                return null;
+            for (; parts < 3; parts++) {
+                text.append(".0");
+            }
+        }
+
+        // Pre-release tags, split on '-' like SemVer, numeric tags without leading zeros
+        if (i < len && version.charAt(i) == '-') {
+            int buildStart = version.indexOf('+', i);
+            if (buildStart < 0)
+                buildStart = len;
+            i++;
+            if (i == buildStart)
+                return null;
+            text.append('-');
+            while (true) {
+                int end = version.indexOf('-', i);
+                if (end < 0 || end > buildStart)
+                    end = buildStart;
+                if (end > i && skipDigits(version, i, end) == end) {
+                    appendNumber(text, version, i, end);
+                }
+                else {
+                    final String tag = version.substring(i, end);
+                    text.append(lowerCaseTags ? tag.toLowerCase(Locale.ROOT) : tag);
+                }
+                if (end == buildStart)
+                    break;
+                text.append('-');
+                i = end + 1;
+            }
+            i = buildStart;
+        }
+
+        // Build meta data
+        if (i < len && version.charAt(i) == '+') {
+            if (i + 1 == len)
+                return null;
+            if (!dropBuildMetaData)
+                text.append(version, i, len);
+            i = len;
+        }
+
+        return i == len ? SemVer.parse(text.toString()) : null;
+    }
+
+    private static int skipDigits(@NonNull String version, @NonNegative int from, @NonNegative int to) {
+        int i = from;
+        while (i < to && isDigit(version.charAt(i))) i++;
+        return i;
+    }
+
+    /**
+     * Append a number without its leading zeros.
+     */
+    private static void appendNumber(@NonNull StringBuilder text, @NonNull String version, @NonNegative int from, @NonNegative int to) {
+        while (from < to - 1 && version.charAt(from) == '0') from++;
+        text.append(version, from, to);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,537 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+
+
+/**
+ * <p>File backed catalog of (artifact, {@link SemVer}) pairs, read through memory-mapped files.
+ *
+ * <p>The catalog is stored in a directory, in three files:
+ *
+ * <ul>
+ * <li><code>versions.dict</code>: the dictionary of artifact names, pre-release and build meta data tags. Each
+ * distinct string is stored once and referenced by its offset in the file.
+ * <li><code>versions.log</code>: fixed size records, appended in insertion order. A record holds the artifact offset,
+ * the three version numbers and the tag offsets.
+ * <li><code>versions.idx</code>: the sorted index, fixed size entries with the packed keys
+ * <code>(artifact &lt;&lt; 32 | major)</code> and <code>(minor &lt;&lt; 32 | patch)</code>, and the record number.
+ * Entries are sorted by artifact then by version.
+ * </ul>
+ *
+ * <p>{@link #latest(String)} and {@link #latestCompatible(String, SemVer)} run a binary search on the index. Records
+ * added after the last {@link #rebuildIndex()} are scanned linearly, so the index should be rebuilt after large
+ * additions. Only the dictionary lookup map is kept on heap.
+ *
+ * <p>Each file is limited to 2GB (89478485 records), {@link #add(String, SemVer)} failing once the limit is
+ * reached. A catalog must not be opened twice at the same time.
+ * This class is thread safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class VersionCatalog implements Closeable {
+
+    private static final int MAGIC = 0x48564331; // "HVC1"
+
+    private static final int NONE = -1;
+
+    // Dictionary file: magic, then entries (unsigned short length + UTF-8 bytes)
+    private static final int DICT_HEADER = 4;
+
+    // Log file: magic, then records (artifact, major, minor, patch, pre-release, build)
+    private static final int LOG_HEADER = 4;
+    private static final int RECORD_SIZE = 24;
+
+    /**
+     * Maximum number of records: offsets in the mapped files are ints.
+     */
+    static final int MAX_RECORDS = (Integer.MAX_VALUE - LOG_HEADER) / RECORD_SIZE;
+
+    // Index file: magic and number of indexed records, then entries (packed keys + record number)
+    private static final int INDEX_HEADER = 8;
+    private static final int ENTRY_SIZE = 20;
+
+    private final @NonNull FileChannel dictChannel;
+    private final @NonNull FileChannel logChannel;
+    private final @NonNull FileChannel indexChannel;
+
+    /**
+     * Offsets of the dictionary strings.
+     */
+    private final @NonNull Map<String, Integer> dictionary = new HashMap<>();
+
+    private @NonNull MappedByteBuffer dictMap;
+    private @NonNull MappedByteBuffer logMap;
+    private @NonNull MappedByteBuffer indexMap;
+
+    private int dictSize;
+    private int records;
+    private int indexed;
+
+
+    private VersionCatalog(@NonNull FileChannel dictChannel, @NonNull FileChannel logChannel, @NonNull FileChannel indexChannel) throws IOException {
+        this.dictChannel = dictChannel;
+        this.logChannel = logChannel;
+        this.indexChannel = indexChannel;
+
+        this.dictSize = (int) initialize(dictChannel, DICT_HEADER);
+        this.dictMap = map(dictChannel, dictSize);
+        int offset = DICT_HEADER;
+        while (offset + 2 <= dictSize) {
+            final int length = dictMap.getShort(offset) & 0xFFFF;
+            if (offset + 2 + length > dictSize)
+                break;
+            dictionary.put(readString(offset), offset);
+            offset += 2 + length;
+        }
+        this.dictSize = offset; // ignore a partially written entry
+
+        final long logSize = initialize(logChannel, LOG_HEADER);
+        final long logRecords = (logSize - LOG_HEADER) / RECORD_SIZE; // ignore a partially written record
+        if (logRecords > MAX_RECORDS)
+            throw new IOException("Corrupted version catalog log");
+        this.records = (int) logRecords;
+        this.logMap = map(logChannel, LOG_HEADER + (long) records * RECORD_SIZE);
+
+        final long indexSize = initialize(indexChannel, INDEX_HEADER);
+        this.indexMap = map(indexChannel, indexSize);
+        final int count = indexSize >= INDEX_HEADER ? indexMap.getInt(4) : 0;
+        if (count < 0 || count > records || INDEX_HEADER + (long) count * ENTRY_SIZE > indexSize)
+            throw new IOException("Corrupted version catalog index");
+        this.indexed = count;
+    }
+
+    /**
+     * Open a catalog, creating its files if needed.
+     *
+     * @param directory directory of the catalog files
+     *
+     * @return the catalog
+     *
+     * @throws IOException if the files cannot be opened or are corrupted
+     */
+    public static @NonNull VersionCatalog open(@NonNull Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel dict = null, log = null, index = null;
+        try {
+            dict = FileChannel.open(directory.resolve("versions.dict"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            log = FileChannel.open(directory.resolve("versions.log"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            index = FileChannel.open(directory.resolve("versions.idx"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new VersionCatalog(dict, log, index);
+        }
+        catch (IOException | RuntimeException e) {
+            closeQuietly(dict);
+            closeQuietly(log);
+            closeQuietly(index);
+            throw e;
+        }
+    }
+
+
+    // Updates
+    //--------------------------------------------------------------------------
+
+    /**
+     * Append a version to the catalog. The index is not updated.
+     *
+     * @param artifact artifact name
+     * @param version version of the artifact
+     *
+     * @throws IOException if the catalog cannot be written, or is full
+     */
+    public synchronized void add(@NonNull String artifact, @NonNull SemVer version) throws IOException {
+        if (version.major < 0 || version.minor < 0 || version.patch < 0)
+            throw new IllegalArgumentException("Invalid version (negative number): " + version);
+        if (records >= MAX_RECORDS)
+            throw new IOException("Version catalog full: " + records + " records");
+
+        final List<String> preRelease = version.preReleaseTags();
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.putInt(intern(artifact));
+        record.putInt(version.major);
+        record.putInt(version.minor);
+        record.putInt(version.patch);
+        record.putInt(preRelease.isEmpty() ? NONE : intern(String.join("-", preRelease)));
+        record.putInt(version.buildMetaData().isEmpty() ? NONE : intern(version.buildMetaData()));
+        record.flip();
+
+        writeFully(logChannel, record, LOG_HEADER + (long) records * RECORD_SIZE);
+        records++;
+    }
+
+    /**
+     * Sort all the records in the index.
+     *
+     * @throws IOException if the index cannot be written
+     */
+    public synchronized void rebuildIndex() throws IOException {
+        final ByteBuffer log = logMap();
+        final int[] order = new int[records];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        sort(order, (r1, r2) -> compareRecords(log, r1, r2));
+
+        // An empty index stays valid while the entries are written
+        ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER);
+        header.putInt(MAGIC).putInt(0).flip();
+        writeFully(indexChannel, header, 0);
+        indexed = 0;
+
+        final ByteBuffer entries = ByteBuffer.allocate(ENTRY_SIZE * 4096);
+        long position = INDEX_HEADER;
+        for (int i = 0; i < order.length; i++) {
+            final int base = recordOffset(order[i]);
+            entries.putLong(pack(log.getInt(base), log.getInt(base + 4)));
+            entries.putLong(pack(log.getInt(base + 8), log.getInt(base + 12)));
+            entries.putInt(order[i]);
+            if (!entries.hasRemaining() || i == order.length - 1) {
+                entries.flip();
+                position += writeFully(indexChannel, entries, position);
+                entries.clear();
+            }
+        }
+        indexChannel.force(false);
+
+        header.clear();
+        header.putInt(MAGIC).putInt(order.length).flip();
+        writeFully(indexChannel, header, 0);
+        indexMap = map(indexChannel, INDEX_HEADER + (long) order.length * ENTRY_SIZE);
+        indexed = order.length;
+    }
+
+
+    // Lookups
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param artifact artifact name
+     *
+     * @return the greatest version of the artifact, null if none
+     */
+    public synchronized @Nullable SemVer latest(@NonNull String artifact) {
+        final Integer id = dictionary.get(artifact);
+        if (id == null)
+            return null;
+
+        final ByteBuffer log = logMap();
+        int best = lastEntryBefore(pack(id + 1, 0), id, NONE);
+        best = scanTail(log, best, id, NONE);
+        return best == NONE ? null : readVersion(log, best);
+    }
+
+    /**
+     * @param artifact artifact name
+     * @param base version to update
+     *
+     * @return the greatest version of the artifact with the same major version, if greater or equal to the base
+     * version, else null
+     */
+    public synchronized @Nullable SemVer latestCompatible(@NonNull String artifact, @NonNull SemVer base) {
+        final Integer id = dictionary.get(artifact);
+        if (id == null || base.major < 0)
+            return null;
+
+        final ByteBuffer log = logMap();
+        final long key = base.major == Integer.MAX_VALUE ? pack(id + 1, 0) : pack(id, base.major + 1);
+        int best = lastEntryBefore(key, id, base.major);
+        best = scanTail(log, best, id, base.major);
+        if (best == NONE)
+            return null;
+
+        final SemVer latest = readVersion(log, best);
+        return latest.compareTo(base) >= 0 ? latest : null;
+    }
+
+    /**
+     * @return the number of records.
+     */
+    public synchronized int size() {
+        return records;
+    }
+
+    /**
+     * @return the number of records in the index.
+     */
+    public synchronized int indexedSize() {
+        return indexed;
+    }
+
+    /**
+     * @return the distinct artifact names and tags.
+     */
+    public synchronized int dictionarySize() {
+        return dictionary.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            dictChannel.close();
+        }
+        finally {
+            try {
+                logChannel.close();
+            }
+            finally {
+                indexChannel.close();
+            }
+        }
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    /**
+     * Binary search of the last index entry with a key lower than the given one.
+     *
+     * @return the record number if it belongs to the artifact (and major version if not {@link #NONE}), else NONE
+     */
+    private int lastEntryBefore(long key, int artifact, int major) {
+        int low = 0;
+        int high = indexed;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (indexMap.getLong(entryOffset(mid)) < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        if (low == 0)
+            return NONE;
+
+        final long found = indexMap.getLong(entryOffset(low - 1));
+        if ((int) (found >>> 32) != artifact || (major != NONE && (int) found != major))
+            return NONE;
+        return indexMap.getInt(entryOffset(low - 1) + 16);
+    }
+
+    /**
+     * Linear scan of the records not indexed yet.
+     */
+    private int scanTail(@NonNull ByteBuffer log, int best, int artifact, int major) {
+        for (int record = indexed; record < records; record++) {
+            final int base = recordOffset(record);
+            if (log.getInt(base) != artifact || (major != NONE && log.getInt(base + 4) != major))
+                continue;
+            if (best == NONE || compareRecords(log, record, best) > 0)
+                best = record;
+        }
+        return best;
+    }
+
+    private int compareRecords(@NonNull ByteBuffer log, int r1, int r2) {
+        final int b1 = recordOffset(r1);
+        final int b2 = recordOffset(r2);
+        for (int i = 0; i < 16; i += 4) {
+            final int comparison = Integer.compare(log.getInt(b1 + i), log.getInt(b2 + i));
+            if (comparison != 0)
+                return comparison;
+        }
+        if (log.getInt(b1 + 16) == NONE && log.getInt(b2 + 16) == NONE)
+            return 0;
+        return readVersion(log, r1).compareTo(readVersion(log, r2));
+    }
+
+    private @NonNull SemVer readVersion(@NonNull ByteBuffer log, int record) {
+        final int base = recordOffset(record);
+        final int preRelease = log.getInt(base + 16);
+        final int build = log.getInt(base + 20);
+
+        List<String> tags = Collections.emptyList();
+        if (preRelease != NONE) {
+            tags = new ArrayList<>();
+            final String joined = readString(preRelease);
+            int start = 0;
+            for (int i = 0; i <= joined.length(); i++) {
+                if (i == joined.length() || joined.charAt(i) == '-') {
+                    tags.add(joined.substring(start, i));
+                    start = i + 1;
+                }
+            }
+        }
+        return SemVer.fromParts(log.getInt(base + 4), log.getInt(base + 8), log.getInt(base + 12), tags,
+                build == NONE ? "" : readString(build));
+    }
+
+    private int intern(@NonNull String s) throws IOException {
+        final Integer known = dictionary.get(s);
+        if (known != null)
+            return known;
+
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF)
+            throw new IllegalArgumentException("String too long for the catalog dictionary: " + bytes.length + " bytes");
+        final ByteBuffer entry = ByteBuffer.allocate(2 + bytes.length);
+        entry.putShort((short) bytes.length).put(bytes).flip();
+
+        if ((long) dictSize + entry.remaining() > Integer.MAX_VALUE)
+            throw new IOException("Version catalog dictionary full: " + dictSize + " bytes");
+        final int offset = dictSize;
+        writeFully(dictChannel, entry, offset);
+        dictSize += 2 + bytes.length;
+        dictionary.put(s, offset);
+        return offset;
+    }
+
+    private @NonNull String readString(int offset) {
+        if (offset + 2 > dictMap.capacity()) {
+            try {
+                dictMap = map(dictChannel, dictSize);
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("Cannot map the catalog dictionary", e);
+            }
+        }
+        final int length = dictMap.getShort(offset) & 0xFFFF;
+        final byte[] bytes = new byte[length];
+        final ByteBuffer view = dictMap.duplicate();
+        view.position(offset + 2);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private @NonNull ByteBuffer logMap() {
+        final long size = LOG_HEADER + (long) records * RECORD_SIZE;
+        if (logMap.capacity() < size) {
+            try {
+                logMap = map(logChannel, size);
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("Cannot map the catalog log", e);
+            }
+        }
+        return logMap;
+    }
+
+    /**
+     * @return the offset of a record in the log file
+     *
+     * @throws IllegalStateException if the record is beyond {@link #MAX_RECORDS}
+     */
+    static int recordOffset(int record) {
+        return checkedOffset(LOG_HEADER + (long) record * RECORD_SIZE, RECORD_SIZE);
+    }
+
+    /**
+     * @return the offset of an entry in the index file
+     *
+     * @throws IllegalStateException if the entry is beyond the size of a mapped file
+     */
+    static int entryOffset(int entry) {
+        return checkedOffset(INDEX_HEADER + (long) entry * ENTRY_SIZE, ENTRY_SIZE);
+    }
+
+    private static int checkedOffset(long offset, int size) {
+        if (offset < 0 || offset + size > Integer.MAX_VALUE)
+            throw new IllegalStateException("Offset beyond the catalog file size limit: " + offset);
+        return (int) offset;
+    }
+
+    private static long pack(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Write the magic number of an empty file, and check it otherwise.
+     *
+     * @return the file size
+     */
+    private static long initialize(@NonNull FileChannel channel, int header) throws IOException {
+        if (channel.size() == 0) {
+            final ByteBuffer buffer = ByteBuffer.allocate(header);
+            buffer.putInt(MAGIC).flip();
+            writeFully(channel, buffer, 0);
+            return header;
+        }
+        final ByteBuffer magic = ByteBuffer.allocate(4);
+        channel.read(magic, 0);
+        if (magic.position() < 4 || magic.getInt(0) != MAGIC)
+            throw new IOException("Not a version catalog file");
+        if (channel.size() > Integer.MAX_VALUE)
+            throw new IOException("Version catalog file too large");
+        return channel.size();
+    }
+
+    private static @NonNull MappedByteBuffer map(@NonNull FileChannel channel, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    private static int writeFully(@NonNull FileChannel channel, @NonNull ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static void closeQuietly(@Nullable FileChannel channel) {
+        if (channel == null)
+            return;
+        try {
+            channel.close();
+        }
+        catch (IOException ignored) {
+            // Already failing
+        }
+    }
+
+    /**
+     * Merge sort of record numbers.
+     */
+    private static void sort(int @NonNull [] a, @NonNull IntBinaryOperator comparator) {
+        int[] src = a;
+        int[] dst = new int[a.length];
+        for (int width = 1; width < a.length; width <<= 1) {
+            for (int low = 0; low < a.length; low += width << 1) {
+                final int mid = Math.min(low + width, a.length);
+                final int high = Math.min(low + (width << 1), a.length);
+                int i = low, j = mid, k = low;
+                while (i < mid && j < high) {
+                    dst[k++] = comparator.applyAsInt(src[i], src[j]) <= 0 ? src[i++] : src[j++];
+                }
+                while (i < mid) dst[k++] = src[i++];
+                while (j < high) dst[k++] = src[j++];
+            }
+            final int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        if (src != a)
+            System.arraycopy(src, 0, a, 0, a.length);
+    }
+}
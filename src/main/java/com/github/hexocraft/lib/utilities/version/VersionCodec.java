@@ -0,0 +1,351 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * <p>Binary codec for {@link SemVer} and {@link Version}, to store version catalogs and load them without parsing.
+ *
+ * <p>A {@link SemVer} is written as:
+ *
+ * <ul>
+ * <li>major, minor and patch as unsigned varints (1 byte below 128),
+ * <li>the number of pre-release tags as a varint, followed by the tags,
+ * <li>the build meta data, as a tag (empty if none).
+ * </ul>
+ *
+ * <p>A tag is either written inline, as a varint <code>length &lt;&lt; 1</code> followed by its ASCII bytes, or as a
+ * reference to a tag already written in the same stream: varint <code>index &lt;&lt; 1 | 1</code>. Repeated tags like
+ * "SNAPSHOT" or "R0.1" then cost a single byte.
+ *
+ * <p>A {@link Version} is written as one byte, {@link #VERSION_NUMBERS} or {@link #VERSION_SEMVER}, followed by the
+ * three numbers or by the {@link SemVer}.
+ *
+ * <p>{@link SemVer#writeTo(java.io.DataOutput)} and {@link Version#writeTo(java.io.DataOutput)} use the same format
+ * without dictionary. The {@link ByteBuffer} methods of a codec instance share a dictionary: a stream must be read back
+ * in the same order with a codec in the same state (new, or {@link #reset()}). A codec is not thread safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class VersionCodec {
+
+    /**
+     * Version not Semantic Versioning compliant: only the numbers are stored.
+     */
+    public static final byte VERSION_NUMBERS = 0;
+
+    /**
+     * Semantic Versioning compliant version.
+     */
+    public static final byte VERSION_SEMVER = 1;
+
+    /**
+     * Upper bound of the number of pre-release tags, to reject corrupted data.
+     */
+    static final int MAX_TAGS = 1024;
+
+    /**
+     * Upper bound of a tag length, to reject corrupted data.
+     */
+    static final int MAX_TAG_LENGTH = 0xFFFF;
+
+    /**
+     * Index of the tags already written.
+     */
+    private final @NonNull Map<String, Integer> writeDictionary = new HashMap<>();
+
+    /**
+     * Tags already read, in order.
+     */
+    private final @NonNull List<String> readDictionary = new ArrayList<>();
+
+
+    // ByteBuffer codec
+    //--------------------------------------------------------------------------
+
+    /**
+     * Write a {@link SemVer} at the buffer position.
+     *
+     * @param buffer buffer to write to
+     * @param version version to write
+     *
+     * @throws java.nio.BufferOverflowException if the buffer is too small, nothing being written: the version can be
+     * written again to a larger buffer
+     */
+    public void write(@NonNull ByteBuffer buffer, @NonNull SemVer version) {
+        final List<String> preRelease = version.preReleaseTags();
+        if (buffer.remaining() < encodedLength(version, preRelease))
+            throw new BufferOverflowException();
+        write(buffer, version, preRelease);
+    }
+
+    private void write(@NonNull ByteBuffer buffer, @NonNull SemVer version, @NonNull List<String> preRelease) {
+        writeVarInt(buffer, version.major);
+        writeVarInt(buffer, version.minor);
+        writeVarInt(buffer, version.patch);
+        writeVarInt(buffer, preRelease.size());
+        for (int i = 0; i < preRelease.size(); i++) {
+            writeTag(buffer, preRelease.get(i));
+        }
+        writeTag(buffer, version.buildMetaData());
+    }
+
+    /**
+     * Write a {@link Version} at the buffer position.
+     *
+     * @param buffer buffer to write to
+     * @param version version to write
+     *
+     * @throws java.nio.BufferOverflowException if the buffer is too small, nothing being written: the version can be
+     * written again to a larger buffer
+     */
+    public void write(@NonNull ByteBuffer buffer, @NonNull Version version) {
+        final SemVer semVer = version.toSemVer();
+        if (semVer != null) {
+            final List<String> preRelease = semVer.preReleaseTags();
+            if (buffer.remaining() < 1 + encodedLength(semVer, preRelease))
+                throw new BufferOverflowException();
+            buffer.put(VERSION_SEMVER);
+            write(buffer, semVer, preRelease);
+        }
+        else {
+            if (buffer.remaining() < 1 + varIntLength(version.major) + varIntLength(version.minor) + varIntLength(version.patch))
+                throw new BufferOverflowException();
+            buffer.put(VERSION_NUMBERS);
+            writeVarInt(buffer, version.major);
+            writeVarInt(buffer, version.minor);
+            writeVarInt(buffer, version.patch);
+        }
+    }
+
+    /**
+     * Read a {@link SemVer} at the buffer position.
+     *
+     * @param buffer buffer to read from
+     *
+     * @return the version read
+     *
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the version
+     * @throws IllegalArgumentException if the data read is not a valid version
+     */
+    public @NonNull SemVer readSemVer(@NonNull ByteBuffer buffer) {
+        final int major = readVarInt(buffer);
+        final int minor = readVarInt(buffer);
+        final int patch = readVarInt(buffer);
+        final int count = readVarInt(buffer);
+        if (count < 0 || count > MAX_TAGS)
+            throw new IllegalArgumentException("Invalid pre-release tag count: " + count);
+
+        List<String> preRelease = count == 0 ? Collections.emptyList() : new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            preRelease.add(readTag(buffer));
+        }
+        return SemVer.fromParts(major, minor, patch, preRelease, readTag(buffer));
+    }
+
+    /**
+     * Read a {@link Version} at the buffer position.
+     *
+     * @param buffer buffer to read from
+     *
+     * @return the version read
+     *
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the version
+     * @throws IllegalArgumentException if the data read is not a valid version
+     */
+    public @NonNull Version readVersion(@NonNull ByteBuffer buffer) {
+        final byte kind = buffer.get();
+        if (kind == VERSION_SEMVER)
+            return new Version(readSemVer(buffer));
+        if (kind != VERSION_NUMBERS)
+            throw new IllegalArgumentException("Invalid version kind: " + kind);
+        return Version.fromNumbers(readVarInt(buffer), readVarInt(buffer), readVarInt(buffer));
+    }
+
+    /**
+     * @return the number of distinct tags written or read.
+     */
+    public int dictionarySize() {
+        return Math.max(writeDictionary.size(), readDictionary.size());
+    }
+
+    /**
+     * Forget the tags written or read, to start a new stream.
+     */
+    public void reset() {
+        writeDictionary.clear();
+        readDictionary.clear();
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    /**
+     * @return the number of bytes written by {@link #write(ByteBuffer, SemVer)} in the current dictionary state
+     */
+    private int encodedLength(@NonNull SemVer version, @NonNull List<String> preRelease) {
+        int length = varIntLength(version.major) + varIntLength(version.minor) + varIntLength(version.patch)
+                + varIntLength(preRelease.size());
+        List<String> added = null;
+        for (int i = 0; i <= preRelease.size(); i++) {
+            final String tag = i < preRelease.size() ? preRelease.get(i) : version.buildMetaData();
+            if (tag.isEmpty()) {
+                length++;
+                continue;
+            }
+            Integer index = writeDictionary.get(tag);
+            // Tags repeated in this version reference their first occurrence
+            if (index == null && added != null && added.contains(tag))
+                index = writeDictionary.size() + added.indexOf(tag);
+            if (index != null) {
+                length += varIntLength(index << 1 | 1);
+            }
+            else {
+                length += varIntLength(tag.length() << 1) + tag.length();
+                if (added == null)
+                    added = new ArrayList<>();
+                added.add(tag);
+            }
+        }
+        return length;
+    }
+
+    private void writeTag(@NonNull ByteBuffer buffer, @NonNull String tag) {
+        if (tag.isEmpty()) {
+            buffer.put((byte) 0);
+            return;
+        }
+        final Integer index = writeDictionary.get(tag);
+        if (index != null) {
+            writeVarInt(buffer, index << 1 | 1);
+            return;
+        }
+        writeDictionary.put(tag, writeDictionary.size());
+        writeVarInt(buffer, tag.length() << 1);
+        for (int i = 0; i < tag.length(); i++) {
+            buffer.put((byte) tag.charAt(i));
+        }
+    }
+
+    private @NonNull String readTag(@NonNull ByteBuffer buffer) {
+        final int header = readVarInt(buffer);
+        if ((header & 1) != 0) {
+            final int index = header >>> 1;
+            if (index >= readDictionary.size())
+                throw new IllegalArgumentException("Invalid tag reference: " + index);
+            return readDictionary.get(index);
+        }
+        final int length = header >>> 1;
+        if (length == 0)
+            return "";
+        if (length > MAX_TAG_LENGTH)
+            throw new IllegalArgumentException("Invalid tag length: " + length);
+
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        final String tag = new String(bytes, StandardCharsets.US_ASCII);
+        readDictionary.add(tag);
+        return tag;
+    }
+
+    static void writeVarInt(@NonNull ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int varIntLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    static int readVarInt(@NonNull ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Invalid varint: more than 5 bytes");
+    }
+
+
+    // DataOutput / DataInput, without dictionary
+    //--------------------------------------------------------------------------
+
+    static void writeVarInt(@NonNull DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(@NonNull DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Invalid varint: more than 5 bytes");
+    }
+
+    static void writeTag(@NonNull DataOutput out, @NonNull String tag) throws IOException {
+        writeVarInt(out, tag.length() << 1);
+        out.writeBytes(tag);
+    }
+
+    static @NonNull String readTag(@NonNull DataInput in) throws IOException {
+        final int header = readVarInt(in);
+        if ((header & 1) != 0)
+            throw new IllegalArgumentException("Invalid tag: reference without dictionary");
+        final int length = header >>> 1;
+        if (length == 0)
+            return "";
+        if (length > MAX_TAG_LENGTH)
+            throw new IllegalArgumentException("Invalid tag length: " + length);
+
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,268 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.function.Predicate;
+
+
+/**
+ * <p>Constraint on a {@link Version}, like "&gt;=1.8 &lt;1.13" or "^2.1.0 || ~3.0.1".
+ *
+ * <p>A constraint is a list of alternatives separated by "||", each alternative being a list of terms separated by
+ * spaces, which must all be satisfied. A term is a version, optionally preceded by an operator:
+ *
+ * <ul>
+ * <li>"=" (or no operator), "&gt;", "&gt;=", "&lt;", "&lt;=": comparison with {@link Version#compareTo(Version)},
+ * <li>"^1.2.3": same major version, at least 1.2.3 (same minor version if the major version is 0),
+ * <li>"~1.2.3": same major and minor versions, at least 1.2.3,
+ * <li>"*": any version.
+ * </ul>
+ *
+ * <p>Versions must be Semantic Versioning compliant, or one to three numbers separated by dots: "1.8" stands for
+ * "1.8.0", and a single number is a major version, "&lt;2" standing for "&lt;2.0.0". Anything else, like "v1.8" or
+ * "1.8-junk", is rejected rather than extracted loosely.
+ *
+ * <p>A constraint is compiled once into one version interval per alternative: testing a version costs at most two
+ * comparisons per alternative. Constraints are immutable and thread safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class VersionConstraint implements Predicate<Version> {
+
+    /**
+     * Constraint satisfied by any version.
+     */
+    public static final VersionConstraint ANY = parse("*");
+
+    /**
+     * Source of the constraint.
+     */
+    private final @NonNull String constraint;
+
+    /**
+     * Lower bound of each alternative, null if none.
+     */
+    private final @Nullable Version[] lower;
+
+    /**
+     * Upper bound of each alternative, null if none.
+     */
+    private final @Nullable Version[] upper;
+
+    /**
+     * If the bounds of each alternative are inclusive.
+     */
+    private final @NonNull boolean[] lowerInclusive;
+    private final @NonNull boolean[] upperInclusive;
+
+
+    private VersionConstraint(@NonNull String constraint, int alternatives) {
+        this.constraint = constraint;
+        this.lower = new Version[alternatives];
+        this.upper = new Version[alternatives];
+        this.lowerInclusive = new boolean[alternatives];
+        this.upperInclusive = new boolean[alternatives];
+    }
+
+    /**
+     * Compile a constraint.
+     *
+     * @param constraint constraint, e.g. "&gt;=1.8 &lt;1.13"
+     *
+     * @return the compiled constraint
+     *
+     * @throws IllegalArgumentException if the constraint is not valid
+     */
+    public static @NonNull VersionConstraint parse(@NonNull String constraint) {
+        final String[] alternatives = constraint.split("\\|\\|", -1);
+        final VersionConstraint compiled = new VersionConstraint(constraint, alternatives.length);
+        for (int i = 0; i < alternatives.length; i++) {
+            final String alternative = alternatives[i].trim();
+            if (alternative.isEmpty())
+                throw new IllegalArgumentException("Invalid version constraint: " + constraint);
+            for (String term : alternative.split("\\s+")) {
+                compiled.addTerm(i, term, constraint);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * @param version minimum version, inclusive
+     *
+     * @return a constraint satisfied by the version and the greater ones
+     */
+    public static @NonNull VersionConstraint atLeast(@NonNull Version version) {
+        final VersionConstraint compiled = new VersionConstraint(">=" + version, 1);
+        compiled.lower(0, version, true);
+        return compiled;
+    }
+
+
+    // Test
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param version version to test
+     *
+     * @return true if the version satisfies the constraint
+     */
+    @Override
+    public boolean test(@NonNull Version version) {
+        for (int i = 0; i < lower.length; i++) {
+            if (inInterval(i, version))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param version version to test
+     *
+     * @return true if the version satisfies the constraint
+     */
+    public boolean test(@NonNull SemVer version) {
+        return test(new Version(version));
+    }
+
+    /**
+     * @return the number of alternatives, each one compiled to a version interval.
+     */
+    public int alternatives() {
+        return lower.length;
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return constraint;
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    private boolean inInterval(int i, @NonNull Version version) {
+        final Version min = lower[i];
+        if (min != null) {
+            final int comparison = version.compareTo(min);
+            if (comparison < 0 || (comparison == 0 && !lowerInclusive[i]))
+                return false;
+        }
+        final Version max = upper[i];
+        if (max != null) {
+            final int comparison = version.compareTo(max);
+            if (comparison > 0 || (comparison == 0 && !upperInclusive[i]))
+                return false;
+        }
+        return true;
+    }
+
+    private void addTerm(int i, @NonNull String term, @NonNull String constraint) {
+        if (term.equals("*"))
+            return;
+
+        int start = 0;
+        while (start < term.length() && "<>=^~".indexOf(term.charAt(start)) >= 0) start++;
+        final String operator = term.substring(0, start);
+        final Version version = parseBound(term.substring(start));
+        if (version == null)
+            throw new IllegalArgumentException("Invalid version constraint: " + constraint);
+
+        switch (operator) {
+            case "":
+            case "=":
+                lower(i, version, true);
+                upper(i, version, true);
+                break;
+            case ">":
+                lower(i, version, false);
+                break;
+            case ">=":
+                lower(i, version, true);
+                break;
+            case "<":
+                upper(i, version, false);
+                break;
+            case "<=":
+                upper(i, version, true);
+                break;
+            case "^":
+                lower(i, version, true);
+                upper(i, version.major > 0 ? new Version(version.major + 1, 0, 0) : new Version(0, version.minor + 1, 0), false);
+                break;
+            case "~":
+                lower(i, version, true);
+                upper(i, new Version(version.major, version.minor + 1, 0), false);
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid version constraint: " + constraint);
+        }
+    }
+
+    /**
+     * @return the version of a term, strict Semantic Versioning or up to three numbers separated by dots, missing
+     * numbers being 0, null if not valid
+     */
+    private static @Nullable Version parseBound(@NonNull String version) {
+        if (SemVer.isSemver(version))
+            return new Version(version);
+
+        final int[] numbers = new int[3];
+        int parts = 0;
+        int i = 0;
+        while (parts < 3) {
+            final int start = i;
+            while (i < version.length() && version.charAt(i) >= '0' && version.charAt(i) <= '9') i++;
+            if (i == start || i - start > 9)
+                return null;
+            numbers[parts++] = Integer.parseInt(version.substring(start, i));
+            if (i == version.length())
+                return new Version(numbers[0], numbers[1], numbers[2]);
+            if (version.charAt(i++) != '.')
+                return null;
+        }
+        return null;
+    }
+
+    /**
+     * Narrow the lower bound of an alternative.
+     */
+    private void lower(int i, @NonNull Version version, boolean inclusive) {
+        final Version min = lower[i];
+        final int comparison = min == null ? 1 : version.compareTo(min);
+        if (comparison > 0 || (comparison == 0 && !inclusive)) {
+            lower[i] = version;
+            lowerInclusive[i] = inclusive;
+        }
+    }
+
+    /**
+     * Narrow the upper bound of an alternative.
+     */
+    private void upper(int i, @NonNull Version version, boolean inclusive) {
+        final Version max = upper[i];
+        final int comparison = max == null ? -1 : version.compareTo(max);
+        if (comparison < 0 || (comparison == 0 && !inclusive)) {
+            upper[i] = version;
+            upperInclusive[i] = inclusive;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * <p>Extract a {@link Version} from noisy version strings, like the ones returned by Bukkit, Spigot or Paper servers:
+ * "git-Paper-1618 (MC: 1.12.2)" or "git-Bukkit-1.7.10-R0.1-b3100jnks (MC: 1.7.10)".
+ *
+ * <p>Semantic Versioning compliant strings are parsed as usual. Other strings are scanned once, left to right, for
+ * candidates: numbers separated by dots ("1.12.2"). The version is then taken:
+ *
+ * <ul>
+ * <li>from the candidates following a preferred token (e.g. "MC:"), the first one with the most numbers, tokens
+ * being checked in the order they were added,
+ * <li>else from the candidate with the most numbers (up to 3), the last one by default.
+ * </ul>
+ *
+ * <p>Candidates with fewer numbers than {@link #minimumParts(int)}, or numbers that do not fit in an int, are ignored.
+ *
+ * <p>Results can be cached per distinct string, in a bounded LRU cache. Configure the extractor before sharing it:
+ * extraction is thread safe, configuration is not.
+ *
+ * <pre>
+ * VersionExtractor extractor = new VersionExtractor().preferToken("MC:").cacheSize(64);
+ * Version minecraft = extractor.extract(Bukkit.getVersion());
+ * </pre>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class VersionExtractor {
+
+    /**
+     * Marker stored for the strings without version.
+     */
+    private static final Version NOT_FOUND = new Version(0, 0, 0);
+
+    /**
+     * Preferred tokens, in priority order (potentially empty, but never null).
+     */
+    private final @NonNull List<String> tokens = new ArrayList<>();
+
+    /**
+     * Minimum number of parts of a candidate.
+     */
+    private int minimumParts = 2;
+
+    /**
+     * If the last candidate is preferred to the first one.
+     */
+    private boolean lastCandidate = true;
+
+    /**
+     * Maximum number of cached strings, 0 to disable the cache.
+     */
+    private int cacheSize = 0;
+
+    /**
+     * Cached results, in access order. Null if the cache is disabled.
+     */
+    private @Nullable Map<String, Version> cache;
+
+
+    // Configuration
+    //--------------------------------------------------------------------------
+
+    /**
+     * Take the version from the candidates following a token, if the token is found.
+     *
+     * @param token text preceding the version, e.g. "MC:"
+     *
+     * @return this extractor
+     */
+    public VersionExtractor preferToken(@NonNull String token) {
+        if (token.isEmpty())
+            throw new IllegalArgumentException("Invalid token: empty");
+        tokens.add(token);
+        clearCache();
+        return this;
+    }
+
+    /**
+     * @param minimumParts minimum number of parts of a candidate, between 1 and 3 (default 2).
+     *
+     * @return this extractor
+     */
+    public VersionExtractor minimumParts(@Positive int minimumParts) {
+        if (minimumParts < 1 || minimumParts > 3)
+            throw new IllegalArgumentException("Invalid minimum parts: " + minimumParts);
+        this.minimumParts = minimumParts;
+        clearCache();
+        return this;
+    }
+
+    /**
+     * @param lastCandidate true to take the last candidate (default), false to take the first one.
+     *
+     * @return this extractor
+     */
+    public VersionExtractor lastCandidate(boolean lastCandidate) {
+        this.lastCandidate = lastCandidate;
+        clearCache();
+        return this;
+    }
+
+    /**
+     * @param cacheSize maximum number of cached strings, 0 to disable the cache (default).
+     *
+     * @return this extractor
+     */
+    public VersionExtractor cacheSize(@NonNegative int cacheSize) {
+        if (cacheSize < 0)
+            throw new IllegalArgumentException("Invalid cache size: " + cacheSize);
+        this.cacheSize = cacheSize;
+        this.cache = cacheSize == 0 ? null : Collections.synchronizedMap(new LinkedHashMap<String, Version>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Version> eldest) {
+                return size() > VersionExtractor.this.cacheSize;
+            }
+        });
+        return this;
+    }
+
+
+    // Extraction
+    //--------------------------------------------------------------------------
+
+    /**
+     * Extract a version from a string.
+     *
+     * @param version version string
+     *
+     * @return {@link Version} found in the string, null if none
+     */
+    public @Nullable Version extract(@NonNull String version) {
+        final Map<String, Version> cache = this.cache;
+        if (cache == null)
+            return doExtract(version);
+
+        Version cached = cache.get(version);
+        if (cached == null) {
+            cached = doExtract(version);
+            cache.put(version, cached == null ? NOT_FOUND : cached);
+        }
+        return cached == NOT_FOUND ? null : cached;
+    }
+
+    /**
+     * @return the current number of cached strings.
+     */
+    public int cachedCount() {
+        final Map<String, Version> cache = this.cache;
+        return cache == null ? 0 : cache.size();
+    }
+
+
+    // Internal functions
+    //--------------------------------------------------------------------------
+
+    private void clearCache() {
+        if (cache != null)
+            cache.clear();
+    }
+
+    private @Nullable Version doExtract(@NonNull String version) {
+        if (SemVer.isSemver(version))
+            return new Version(version);
+
+        for (String token : tokens) {
+            final int index = version.indexOf(token);
+            if (index >= 0) {
+                final Version found = scan(version, index + token.length(), minimumParts, false);
+                if (found != null)
+                    return found;
+            }
+        }
+        return scan(version, 0, minimumParts, lastCandidate);
+    }
+
+    /**
+     * Scan a string for the candidate with the most parts, in one pass.
+     *
+     * @param version version string
+     * @param from index to start from
+     * @param minimumParts minimum number of parts of a candidate
+     * @param lastCandidate true to take the last candidate, false to take the first one
+     *
+     * @return a {@link Version} built from the candidate found, null if none
+     */
+    static @Nullable Version scan(@NonNull String version, @NonNegative int from, @Positive int minimumParts, boolean lastCandidate) {
+        final int len = version.length();
+        int bestParts = 0;
+        int bestMajor = 0, bestMinor = 0, bestPatch = 0;
+
+        int i = from;
+        while (i < len) {
+            if (!isDigit(version.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            // Candidate: numbers separated by dots
+            int parts = 0;
+            int major = 0, minor = 0, patch = 0;
+            boolean overflow = false;
+            while (true) {
+                int value = 0;
+                while (i < len && isDigit(version.charAt(i))) {
+                    final int digit = version.charAt(i++) - '0';
+                    if (value > (Integer.MAX_VALUE - digit) / 10)
+                        overflow = true;
+                    else
+                        value = value * 10 + digit;
+                }
+                switch (parts++) {
+                    case 0: major = value; break;
+                    case 1: minor = value; break;
+                    case 2: patch = value; break;
+                    default: break;
+                }
+                if (i + 1 < len && version.charAt(i) == '.' && isDigit(version.charAt(i + 1)))
+                    i++;
+                else
+                    break;
+            }
+
+            parts = Math.min(parts, 3);
+            if (overflow || parts < minimumParts)
+                continue;
+            if (parts > bestParts || (parts == bestParts && lastCandidate)) {
+                bestParts = parts;
+                bestMajor = major;
+                bestMinor = minor;
+                bestPatch = patch;
+            }
+        }
+
+        return bestParts == 0 ? null : new Version(version, bestMajor, bestMinor, bestPatch);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
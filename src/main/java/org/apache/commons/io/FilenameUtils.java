@@ -19,8 +19,6 @@ package org.apache.commons.io;
 
 import java.io.File;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * General file name and file path manipulation utilities.
@@ -635,8 +633,7 @@ public class FilenameUtils {
             posUnix = posUnix == NOT_FOUND ? posWin : posUnix;
             posWin = posWin == NOT_FOUND ? posUnix : posWin;
             final int pos = Math.min(posUnix, posWin) + 1;
-            final String hostnamePart = fileName.substring(2, pos - 1);
-            return isValidHostName(hostnamePart) ? pos : NOT_FOUND;
+            return isValidHostName(fileName, 2, pos - 1) ? pos : NOT_FOUND;
         } else {
             return isSeparator(ch0) ? 1 : 0;
         }
@@ -1335,264 +1332,261 @@ public class FilenameUtils {
         if (caseSensitivity == null) {
             caseSensitivity = IOCase.SENSITIVE;
         }
-        final String[] wcs = splitOnTokens(wildcardMatcher);
-        boolean anyChars = false;
+        final boolean sensitive = caseSensitivity.isCaseSensitive();
+        final int textLength = fileName.length();
+        final int wcsLength = wildcardMatcher.length();
         int textIdx = 0;
         int wcsIdx = 0;
-        final Stack<int[]> backtrack = new Stack<>();
-
-        // loop around a backtrack stack, to handle complex * matching
-        do {
-            if (backtrack.size() > 0) {
-                final int[] array = backtrack.pop();
-                wcsIdx = array[0];
-                textIdx = array[1];
-                anyChars = true;
-            }
-
-            // loop whilst tokens and text left to process
-            while (wcsIdx < wcs.length) {
-
-                if (wcs[wcsIdx].equals("?")) {
-                    // ? so move to next text char
-                    textIdx++;
-                    if (textIdx > fileName.length()) {
-                        break;
-                    }
-                    anyChars = false;
-
-                } else if (wcs[wcsIdx].equals("*")) {
-                    // set any chars status
-                    anyChars = true;
-                    if (wcsIdx == wcs.length - 1) {
-                        textIdx = fileName.length();
+        int starIdx = NOT_FOUND;
+        int starTextIdx = 0;
+
+        // single pass with one backtrack point: the last '*' seen
+        while (textIdx < textLength) {
+            if (wcsIdx < wcsLength) {
+                final char wc = wildcardMatcher.charAt(wcsIdx);
+                if (wc == '*') {
+                    while (wcsIdx + 1 < wcsLength && wildcardMatcher.charAt(wcsIdx + 1) == '*') {
+                        wcsIdx++;
                     }
-
-                } else {
-                    // matching text token
-                    if (anyChars) {
-                        // any chars then try to locate text token
-                        textIdx = caseSensitivity.checkIndexOf(fileName, textIdx, wcs[wcsIdx]);
-                        if (textIdx == NOT_FOUND) {
-                            // token not found
-                            break;
-                        }
-                        final int repeat = caseSensitivity.checkIndexOf(fileName, textIdx + 1, wcs[wcsIdx]);
-                        if (repeat >= 0) {
-                            backtrack.push(new int[] {wcsIdx, repeat});
-                        }
-                    } else {
-                        // matching from current position
-                        if (!caseSensitivity.checkRegionMatches(fileName, textIdx, wcs[wcsIdx])) {
-                            // couldnt match token
-                            break;
-                        }
+                    // a '*' directly followed by '?' is ignored: "*?" matches a single char
+                    if (wcsIdx + 1 < wcsLength && wildcardMatcher.charAt(wcsIdx + 1) == '?') {
+                        wcsIdx++;
+                        continue;
                     }
-
-                    // matched text token, move text index to end of matched token
-                    textIdx += wcs[wcsIdx].length();
-                    anyChars = false;
+                    starIdx = wcsIdx++;
+                    starTextIdx = textIdx;
+                    continue;
+                }
+                if (wc == '?' || charEquals(fileName.charAt(textIdx), wc, sensitive)) {
+                    textIdx++;
+                    wcsIdx++;
+                    continue;
                 }
-
-                wcsIdx++;
             }
-
-            // full match
-            if (wcsIdx == wcs.length && textIdx == fileName.length()) {
-                return true;
+            if (starIdx == NOT_FOUND) {
+                return false;
             }
+            // let the last '*' absorb one more char
+            wcsIdx = starIdx + 1;
+            textIdx = ++starTextIdx;
+        }
 
-        } while (backtrack.size() > 0);
-
-        return false;
+        // only '*' may remain in the wildcard
+        while (wcsIdx < wcsLength && wildcardMatcher.charAt(wcsIdx) == '*') {
+            wcsIdx++;
+        }
+        return wcsIdx == wcsLength;
     }
 
     /**
-     * Splits a string into a number of tokens.
-     * The text is split by '?' and '*'.
-     * Where multiple '*' occur consecutively they are collapsed into a single '*'.
+     * Compares two chars with the same rules as {@link String#regionMatches(boolean, int, String, int, int)}.
      *
-     * @param text  the text to split
-     * @return the array of tokens, never null
+     * @param c1  the first char
+     * @param c2  the second char
+     * @param sensitive  false to ignore case
+     * @return true if the chars are equal
      */
-    static String[] splitOnTokens(final String text) {
-        // used by wildcardMatch
-        // package level so a unit test may run on this
-
-        if (text.indexOf('?') == NOT_FOUND && text.indexOf('*') == NOT_FOUND) {
-            return new String[] { text };
-        }
-
-        final char[] array = text.toCharArray();
-        final ArrayList<String> list = new ArrayList<>();
-        final StringBuilder buffer = new StringBuilder();
-        char prevChar = 0;
-        for (final char ch : array) {
-            if (ch == '?' || ch == '*') {
-                if (buffer.length() != 0) {
-                    list.add(buffer.toString());
-                    buffer.setLength(0);
-                }
-                if (ch == '?') {
-                    list.add("?");
-                } else if (prevChar != '*') {// ch == '*' here; check if previous char was '*'
-                    list.add("*");
-                }
-            } else {
-                buffer.append(ch);
-            }
-            prevChar = ch;
+    private static boolean charEquals(final char c1, final char c2, final boolean sensitive) {
+        if (c1 == c2) {
+            return true;
         }
-        if (buffer.length() != 0) {
-            list.add(buffer.toString());
+        if (sensitive) {
+            return false;
         }
-
-        return list.toArray( new String[ list.size() ] );
+        final char u1 = Character.toUpperCase(c1);
+        final char u2 = Character.toUpperCase(c2);
+        return u1 == u2 || Character.toLowerCase(u1) == Character.toLowerCase(u2);
     }
 
     /**
-     * Checks whether a given string is a valid host name according to
+     * Checks whether a region of a string is a valid host name according to
      * RFC 3986.
      *
      * <p>Accepted are IP addresses (v4 and v6) as well as what the
      * RFC calls a "reg-name". Percent encoded names don't seem to be
      * valid names in UNC paths.</p>
      *
+     * <p>The validation is done in a single pass over the region, without
+     * regular expressions nor intermediate strings.</p>
+     *
      * @see "https://tools.ietf.org/html/rfc3986#section-3.2.2"
-     * @param name the hostname to validate
+     * @param name the string containing the hostname to validate
+     * @param start the start index of the hostname, inclusive
+     * @param end the end index of the hostname, exclusive
      * @return true if the given name is a valid host name
      */
-    private static boolean isValidHostName(final String name) {
-        return isIPv6Address(name) || isRFC3986HostName(name);
+    private static boolean isValidHostName(final String name, final int start, final int end) {
+        return isIPv6Address(name, start, end) || isRFC3986HostName(name, start, end);
     }
 
-    private static final Pattern IPV4_PATTERN =
-        Pattern.compile("^(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})$");
     private static final int IPV4_MAX_OCTET_VALUE = 255;
+    private static final int IPV4_MAX_DIGITS_PER_OCTET = 3;
+    private static final int IPV4_OCTETS = 4;
 
     /**
-     * Checks whether a given string represents a valid IPv4 address.
+     * Checks whether a region of a string represents a valid IPv4 address.
      *
-     * @param name the name to validate
+     * @param name the string containing the address to validate
+     * @param start the start index of the address, inclusive
+     * @param end the end index of the address, exclusive
      * @return true if the given name is a valid IPv4 address
      */
-    // mostly copied from org.apache.commons.validator.routines.InetAddressValidator#isValidInet4Address
-    private static boolean isIPv4Address(final String name) {
-        final Matcher m = IPV4_PATTERN.matcher(name);
-        if (!m.matches() || m.groupCount() != 4) {
-            return false;
-        }
-
-        // verify that address subgroups are legal
-        for (int i = 1; i <= 4; i++) {
-            final String ipSegment = m.group(i);
-            final int iIpSegment = Integer.parseInt(ipSegment);
-            if (iIpSegment > IPV4_MAX_OCTET_VALUE) {
-                return false;
-            }
-
-            if (ipSegment.length() > 1 && ipSegment.startsWith("0")) {
+    // same rules as org.apache.commons.validator.routines.InetAddressValidator#isValidInet4Address
+    private static boolean isIPv4Address(final String name, final int start, final int end) {
+        int octets = 1;
+        int digits = 0;
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            final char ch = name.charAt(i);
+            if (ch == '.') {
+                if (digits == 0 || ++octets > IPV4_OCTETS) {
+                    return false;
+                }
+                digits = 0;
+                value = 0;
+            } else if (ch >= '0' && ch <= '9') {
+                // no leading zero, at most 3 digits, at most 255
+                if (digits == 1 && value == 0) {
+                    return false;
+                }
+                value = value * 10 + (ch - '0');
+                if (++digits > IPV4_MAX_DIGITS_PER_OCTET || value > IPV4_MAX_OCTET_VALUE) {
+                    return false;
+                }
+            } else {
                 return false;
             }
-
         }
-
-        return true;
+        return digits != 0 && octets == IPV4_OCTETS;
     }
 
     private static final int IPV6_MAX_HEX_GROUPS = 8;
     private static final int IPV6_MAX_HEX_DIGITS_PER_GROUP = 4;
-    private static final int MAX_UNSIGNED_SHORT = 0xffff;
-    private static final int BASE_16 = 16;
 
-    // copied from org.apache.commons.validator.routines.InetAddressValidator#isValidInet6Address
+    // same rules as org.apache.commons.validator.routines.InetAddressValidator#isValidInet6Address
     /**
-     * Checks whether a given string represents a valid IPv6 address.
+     * Checks whether a region of a string represents a valid IPv6 address.
+     * <p>
+     * A compressed "::" counts as one group, an embedded IPv4 address
+     * is only accepted as the last group and counts as two groups.
      *
-     * @param inet6Address the name to validate
+     * @param inet6Address the string containing the address to validate
+     * @param start the start index of the address, inclusive
+     * @param end the end index of the address, exclusive
      * @return true if the given name is a valid IPv6 address
      */
-    private static boolean isIPv6Address(final String inet6Address) {
-        final boolean containsCompressedZeroes = inet6Address.contains("::");
-        if (containsCompressedZeroes && (inet6Address.indexOf("::") != inet6Address.lastIndexOf("::"))) {
+    private static boolean isIPv6Address(final String inet6Address, final int start, final int end) {
+        if (start == end) {
             return false;
         }
-        if ((inet6Address.startsWith(":") && !inet6Address.startsWith("::"))
-                || (inet6Address.endsWith(":") && !inet6Address.endsWith("::"))) {
-            return false;
-        }
-        String[] octets = inet6Address.split(":");
-        if (containsCompressedZeroes) {
-            final List<String> octetList = new ArrayList<>(Arrays.asList(octets));
-            if (inet6Address.endsWith("::")) {
-                // String.split() drops ending empty segments
-                octetList.add("");
-            } else if (inet6Address.startsWith("::") && !octetList.isEmpty()) {
-                octetList.remove(0);
+        boolean compressed = false;
+        int groups = 0;
+        int validGroups = 0;
+        int i = start;
+
+        // leading "::"
+        if (inet6Address.charAt(i) == ':') {
+            if (i + 1 == end || inet6Address.charAt(i + 1) != ':') {
+                return false;
             }
-            octets = octetList.toArray(new String[octetList.size()]);
-        }
-        if (octets.length > IPV6_MAX_HEX_GROUPS) {
-            return false;
-        }
-        int validOctets = 0;
-        int emptyOctets = 0; // consecutive empty chunks
-        for (int index = 0; index < octets.length; index++) {
-            final String octet = octets[index];
-            if (octet.length() == 0) {
-                emptyOctets++;
-                if (emptyOctets > 1) {
-                    return false;
-                }
-            } else {
-                emptyOctets = 0;
+            compressed = true;
+            groups++;
+            validGroups++;
+            i += 2;
+        }
+
+        while (i < end) {
+            // a group must not be empty, this rejects ":::" and a second "::"
+            final int groupStart = i;
+            boolean ipv4 = false;
+            while (i < end && inet6Address.charAt(i) != ':') {
+                ipv4 |= inet6Address.charAt(i) == '.';
+                i++;
+            }
+            if (i == groupStart) {
+                return false;
+            }
+            groups++;
+            if (ipv4) {
                 // Is last chunk an IPv4 address?
-                if (index == octets.length - 1 && octet.contains(".")) {
-                    if (!isIPv4Address(octet)) {
-                        return false;
-                    }
-                    validOctets += 2;
-                    continue;
-                }
-                if (octet.length() > IPV6_MAX_HEX_DIGITS_PER_GROUP) {
+                if (i != end || !isIPv4Address(inet6Address, groupStart, i)) {
                     return false;
                 }
-                int octetInt = 0;
-                try {
-                    octetInt = Integer.parseInt(octet, BASE_16);
-                } catch (final NumberFormatException e) {
+                validGroups += 2;
+            } else {
+                if (i - groupStart > IPV6_MAX_HEX_DIGITS_PER_GROUP || !isHexDigits(inet6Address, groupStart, i)) {
                     return false;
                 }
-                if (octetInt < 0 || octetInt > MAX_UNSIGNED_SHORT) {
+                validGroups++;
+            }
+            if (i == end) {
+                break;
+            }
+
+            // skip the separator, a single trailing ':' is invalid
+            if (++i == end) {
+                return false;
+            }
+            if (inet6Address.charAt(i) == ':') {
+                if (compressed) {
                     return false;
                 }
+                compressed = true;
+                groups++;
+                validGroups++;
+                i++;
             }
-            validOctets++;
         }
-        if (validOctets > IPV6_MAX_HEX_GROUPS || (validOctets < IPV6_MAX_HEX_GROUPS && !containsCompressedZeroes)) {
+        if (groups > IPV6_MAX_HEX_GROUPS || validGroups > IPV6_MAX_HEX_GROUPS) {
             return false;
         }
-        return true;
+        return validGroups == IPV6_MAX_HEX_GROUPS || compressed;
     }
 
-    private static final Pattern REG_NAME_PART_PATTERN = Pattern.compile("^[a-zA-Z0-9][a-zA-Z0-9-]*$");
+    /**
+     * Checks whether a region of a string only contains hexadecimal digits.
+     *
+     * @param name the string to check
+     * @param start the start index, inclusive
+     * @param end the end index, exclusive
+     * @return true if all the characters are hexadecimal digits
+     */
+    private static boolean isHexDigits(final String name, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char ch = name.charAt(i);
+            if (!(ch >= '0' && ch <= '9' || ch >= 'a' && ch <= 'f' || ch >= 'A' && ch <= 'F')) {
+                return false;
+            }
+        }
+        return true;
+    }
 
     /**
-     * Checks whether a given string is a valid host name according to
+     * Checks whether a region of a string is a valid host name according to
      * RFC 3986 - not accepting IP addresses.
+     * <p>
+     * Each dot separated label must match <code>[a-zA-Z0-9][a-zA-Z0-9-]*</code>,
+     * only the last label may be empty (trailing dot).
      *
      * @see "https://tools.ietf.org/html/rfc3986#section-3.2.2"
-     * @param name the hostname to validate
+     * @param name the string containing the hostname to validate
+     * @param start the start index of the hostname, inclusive
+     * @param end the end index of the hostname, exclusive
      * @return true if the given name is a valid host name
      */
-    private static boolean isRFC3986HostName(final String name) {
-        final String[] parts = name.split("\\.", -1);
-        for (int i = 0; i < parts.length; i++) {
-            if (parts[i].length() == 0) {
-                // trailing dot is legal, otherwise we've hit a .. sequence
-                return i == parts.length - 1;
-            }
-            if (!REG_NAME_PART_PATTERN.matcher(parts[i]).matches()) {
+    private static boolean isRFC3986HostName(final String name, final int start, final int end) {
+        boolean labelStart = true;
+        for (int i = start; i < end; i++) {
+            final char ch = name.charAt(i);
+            if (ch == '.') {
+                if (labelStart) {
+                    // we've hit a .. sequence
+                    return false;
+                }
+                labelStart = true;
+            } else if (ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9') {
+                labelStart = false;
+            } else if (ch != '-' || labelStart) {
                 return false;
             }
         }
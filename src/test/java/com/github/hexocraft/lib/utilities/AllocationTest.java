@@ -0,0 +1,97 @@
+package com.github.hexocraft.lib.utilities;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import com.github.hexocraft.lib.utilities.comparator.NumberAwareStringComparator;
+import com.github.hexocraft.lib.utilities.version.SemVer;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+
+/**
+ * Hot paths called per comparison or per file must not allocate.
+ */
+class AllocationTest {
+
+    private static final int WARMUP = 10_000;
+    private static final int ITERATIONS = 100_000;
+
+    /**
+     * Results are accumulated here so that the measured calls are not optimized away.
+     */
+    private int sink;
+
+
+    @Test
+    void semVerCompareTo() {
+        SemVer v1 = new SemVer("1.2.3-rc.2.beta");
+        SemVer v2 = new SemVer("1.2.3-rc.10.beta");
+        assertAllocationBudget("SemVer.compareTo", 0, () -> sink += v1.compareTo(v2));
+    }
+
+    @Test
+    void numberAwareStringComparator() {
+        NumberAwareStringComparator comparator = NumberAwareStringComparator.INSTANCE;
+        assertAllocationBudget("NumberAwareStringComparator.compare", 0,
+                () -> sink += comparator.compare("build-00042-snapshot-7", "build-42-snapshot-12"));
+    }
+
+    @Test
+    void checkRegionMatches() {
+        assertAllocationBudget("IOCase.checkRegionMatches", 0,
+                () -> sink += IOCase.INSENSITIVE.checkRegionMatches("plugins/Config.YML", 8, "config") ? 1 : 0);
+    }
+
+    @Test
+    void wildcardMatch() {
+        assertAllocationBudget("FilenameUtils.wildcardMatch", 0,
+                () -> sink += FilenameUtils.wildcardMatch("world/region/r.0.-1.mca", "*/r.*.*.mca") ? 1 : 0);
+        assertAllocationBudget("FilenameUtils.wildcardMatch (insensitive)", 0,
+                () -> sink += FilenameUtils.wildcardMatch("Plugins/Config.YML", "plugins/*.y?l", IOCase.INSENSITIVE) ? 1 : 0);
+    }
+
+
+    // Helper functions
+    //--------------------------------------------------------------------------
+
+    private static void assertAllocationBudget(String operation, long budgetPerOperation, Runnable op) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Thread allocation counter not available");
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "Thread allocation counter not supported");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) op.run();
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) op.run();
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        long perOperation = allocated / ITERATIONS;
+        assertTrue(perOperation <= budgetPerOperation,
+                operation + " allocated " + perOperation + " bytes per call (budget " + budgetPerOperation + ")");
+    }
+}
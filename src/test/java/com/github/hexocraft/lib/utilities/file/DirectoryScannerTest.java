@@ -0,0 +1,124 @@
+package com.github.hexocraft.lib.utilities.file;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.apache.commons.io.IOCase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DirectoryScannerTest {
+
+    private Path root;
+
+
+    @BeforeAll
+    public void init() throws IOException {
+        root = Files.createTempDirectory("scanner");
+        for (String file : Arrays.asList(
+                "level.dat",
+                "region/r.0.0.mca",
+                "region/r.0.1.mca",
+                "region/r.0.1.mca.bak",
+                "playerdata/a.dat",
+                "playerdata/b.dat",
+                "playerdata/cache/c.dat",
+                "DIM-1/region/r.1.1.mca")) {
+            Path path = root.resolve(file);
+            Files.createDirectories(path.getParent());
+            Files.createFile(path);
+        }
+    }
+
+    @AfterAll
+    public void cleanUp() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private Set<String> relative(Stream<Path> paths) {
+        return paths.map(p -> root.relativize(p).toString().replace('\\', '/')).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    @Test
+    void stream() {
+        assertEquals(new TreeSet<>(Arrays.asList("level.dat", "region/r.0.0.mca", "region/r.0.1.mca", "region/r.0.1.mca.bak",
+                "playerdata/a.dat", "playerdata/b.dat", "playerdata/cache/c.dat", "DIM-1/region/r.1.1.mca")),
+                relative(new DirectoryScanner(root).stream()));
+
+        assertEquals(new TreeSet<>(Arrays.asList("region/r.0.0.mca", "region/r.0.1.mca")),
+                relative(new DirectoryScanner(root).include("region/*.mca").stream()));
+
+        assertEquals(new TreeSet<>(Arrays.asList("region/r.0.0.mca", "region/r.0.1.mca", "DIM-1/region/r.1.1.mca")),
+                relative(new DirectoryScanner(root).include("*.mca").stream()));
+
+        assertEquals(new TreeSet<>(Arrays.asList("playerdata/a.dat", "playerdata/b.dat")),
+                relative(new DirectoryScanner(root).include("playerdata/*.dat").exclude("playerdata/cache/*").stream()));
+
+        assertEquals(new TreeSet<>(Arrays.asList("region/r.0.0.mca", "region/r.0.1.mca")),
+                relative(new DirectoryScanner(root).include("REGION/*.MCA").caseSensitivity(IOCase.INSENSITIVE).stream()));
+
+        assertTrue(relative(new DirectoryScanner(root).include("missing/*").stream()).isEmpty());
+    }
+
+    @Test
+    void scan() {
+        Set<Path> found = new ConcurrentSkipListSet<>();
+        new DirectoryScanner(root).include("*.dat").scan(found::add);
+
+        assertEquals(new TreeSet<>(Arrays.asList("level.dat", "playerdata/a.dat", "playerdata/b.dat", "playerdata/cache/c.dat")),
+                relative(found.stream()));
+    }
+
+    @Test
+    void pruning() {
+        DirectoryScanner scanner = new DirectoryScanner(root).include("region/*.mca", "DIM-1/region/r.?.?.mca").exclude("region/old/*");
+
+        assertTrue(scanner.isTraversed("region/"));
+        assertTrue(scanner.isTraversed("DIM-1/"));
+        assertTrue(scanner.isTraversed("DIM-1/region/"));
+        assertFalse(scanner.isTraversed("playerdata/"));
+        assertFalse(scanner.isTraversed("region/old/"));
+
+        assertTrue(scanner.isIncluded("region/r.0.0.mca"));
+        assertFalse(scanner.isIncluded("region/old/r.0.0.mca"));
+        assertFalse(scanner.isIncluded("region/r.0.0.mca.bak"));
+
+        assertTrue(new DirectoryScanner(root).isTraversed("a/b/"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.hexocraft.lib.utilities.file;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.apache.commons.io.FilenameUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class FilenameViewTest {
+
+    private static final String[] FILE_NAMES = {
+            "", "a", "~", "/", "\\", ":a", "~user", "~user/", "~user/a.txt", "~/a/b.txt",
+            "C:", "C:\\", "C:a\\b.txt", "C:\\a\\b\\c.txt", "1:a", "/:a",
+            "//server/a/b.txt", "\\\\server\\a\\b.txt", "//127.0.0.1/a", "//::1/a", "///a", "//ser ver/a", "//server",
+            "a/b/c.txt", "a.b/c", "a/b/c/", "a/b/.config", "plugins/config.yml", "a/b.tar.gz", "/a", "a.txt"
+    };
+
+    @Test
+    void components() {
+        FilenameView view = new FilenameView();
+        for (String fileName : FILE_NAMES) {
+            view.reset(fileName);
+            assertEquals(FilenameUtils.getPrefixLength(fileName), view.getPrefixLength(), fileName);
+            assertEquals(FilenameUtils.indexOfLastSeparator(fileName), view.indexOfLastSeparator(), fileName);
+            assertEquals(FilenameUtils.indexOfExtension(fileName), view.indexOfExtension(), fileName);
+            assertEquals(FilenameUtils.getPrefix(fileName), view.getPrefix(), fileName);
+            assertEquals(FilenameUtils.getPath(fileName), view.getPath(), fileName);
+            assertEquals(FilenameUtils.getPathNoEndSeparator(fileName), view.getPathNoEndSeparator(), fileName);
+            assertEquals(FilenameUtils.getFullPath(fileName), view.getFullPath(), fileName);
+            assertEquals(FilenameUtils.getFullPathNoEndSeparator(fileName), view.getFullPathNoEndSeparator(), fileName);
+            assertEquals(FilenameUtils.getName(fileName), view.getName(), fileName);
+            assertEquals(FilenameUtils.getBaseName(fileName), view.getBaseName(), fileName);
+            assertEquals(FilenameUtils.getExtension(fileName), view.getExtension(), fileName);
+            assertEquals(FilenameUtils.isExtension(fileName, "txt"), view.isExtension("txt"), fileName);
+            assertEquals(FilenameUtils.isExtension(fileName, ""), view.isExtension(""), fileName);
+        }
+    }
+
+    @Test
+    void reuse() {
+        FilenameView view = new FilenameView(new StringBuilder("world/region/r.0.0.mca"));
+        assertEquals("r.0.0", view.getBaseName());
+        assertEquals(13, view.nameStart());
+        assertEquals(18, view.baseNameEnd());
+        assertTrue(view.isExtension("mca"));
+
+        view.reset("world/level");
+        assertEquals("", view.getExtension());
+        assertEquals("level", view.getBaseName());
+        assertFalse(view.isExtension("mca"));
+
+        view.reset(null);
+        assertNull(view.getName());
+        assertNull(view.getPath());
+        assertEquals(-1, view.getPrefixLength());
+        assertFalse(view.isExtension("mca"));
+
+        view.reset("a\0b/c.txt");
+        assertThrows(IllegalArgumentException.class, view::getName);
+        assertThrows(IllegalArgumentException.class, view::getPath);
+        assertEquals("txt", view.getExtension());
+    }
+}
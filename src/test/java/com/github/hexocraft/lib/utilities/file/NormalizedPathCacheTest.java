@@ -0,0 +1,88 @@
+package com.github.hexocraft.lib.utilities.file;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.apache.commons.io.FilenameUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class NormalizedPathCacheTest {
+
+    @Test
+    void normalize() {
+        NormalizedPathCache cache = new NormalizedPathCache(16);
+
+        for (String path : new String[]{"/foo//", "/foo/./", "/foo/../bar", "//server/foo/../bar", "C:\\foo\\..\\bar", "~/foo/../bar/", "../foo", ""}) {
+            assertEquals(FilenameUtils.normalize(path), cache.normalize(path));
+            assertEquals(FilenameUtils.normalize(path, true), cache.normalize(path, true));
+            assertEquals(FilenameUtils.normalize(path, false), cache.normalize(path, false));
+            assertEquals(FilenameUtils.normalizeNoEndSeparator(path), cache.normalizeNoEndSeparator(path));
+            assertEquals(FilenameUtils.normalizeNoEndSeparator(path, true), cache.normalizeNoEndSeparator(path, true));
+            assertEquals(FilenameUtils.normalizeNoEndSeparator(path, false), cache.normalizeNoEndSeparator(path, false));
+        }
+
+        assertNull(cache.normalize(null));
+        assertEquals(FilenameUtils.concat("/foo/a/", "../bar"), cache.concat("/foo/a/", "../bar"));
+        assertEquals(FilenameUtils.concat("/foo", "bar/c.txt"), cache.concat("/foo", "bar/c.txt"));
+        assertEquals(FilenameUtils.concat("/foo", "C:/bar"), cache.concat("/foo", "C:/bar"));
+        assertNull(cache.concat("/foo/", "../../bar"));
+        assertThrows(IllegalArgumentException.class, () -> cache.normalize("a\0b"));
+    }
+
+    @Test
+    void statistics() {
+        NormalizedPathCache cache = new NormalizedPathCache(4);
+        assertEquals(0.0, cache.hitRate());
+
+        String first = cache.normalize("plugins/./config.yml", true);
+        String second = cache.normalize("plugins//config.yml", true);
+        assertEquals("plugins/config.yml", first);
+        assertSame(first, second);
+        assertEquals(0, cache.hitCount());
+        assertEquals(2, cache.missCount());
+
+        assertSame(first, cache.normalize("plugins/config.yml", true));
+        assertSame(first, cache.normalize("plugins/./config.yml", true));
+        assertNull(cache.normalize("../config.yml", true));
+        assertNull(cache.normalize("../config.yml", true));
+        assertEquals(3, cache.hitCount());
+        assertEquals(0.5, cache.hitRate());
+
+        assertTrue(cache.size() <= 4);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.hitCount());
+
+        assertThrows(IllegalArgumentException.class, () -> new NormalizedPathCache(0));
+    }
+
+    @Test
+    void eviction() {
+        NormalizedPathCache cache = new NormalizedPathCache(2);
+        cache.normalize("a/b", true);
+        cache.normalize("c/d", true);
+        cache.normalize("e/f", true);
+        assertEquals(2, cache.size());
+
+        cache.normalize("a/b", true);
+        assertEquals(0, cache.hitCount());
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.hexocraft.lib.utilities.file;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class Utf8FilenameUtilsTest {
+
+    private static final String[] FILE_NAMES = {
+            "", "a", "~", "/", "\\", ":a", "~user", "~user/a.txt", "~/a/b.txt",
+            "C:", "C:a\\b.txt", "C:\\a\\b\\c.txt", "1:a", "/:a",
+            "//server/a/b.txt", "\\\\server\\a\\b.txt", "//127.0.0.1/a", "//::1/a", "///a", "//ser ver/a",
+            "a/b/c.txt", "a.b/c", "a/b/c/", "a/b/.config", "plugins/config.yml", "world/region/r.0.-1.mca",
+            "donn\u00e9es/\u00e9t\u00e9.yml", "\u4e16\u754c/\u533a\u57df.mca", "a/b.tar.gz"
+    };
+
+    private static ByteBuffer utf8(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void components() {
+        for (String fileName : FILE_NAMES) {
+            ByteBuffer buffer = utf8(fileName);
+            assertEquals(FilenameUtils.getPrefixLength(fileName), Utf8FilenameUtils.getPrefixLength(buffer), fileName);
+            assertEquals(FilenameUtils.getName(fileName), decode(Utf8FilenameUtils.getName(buffer)), fileName);
+            assertEquals(FilenameUtils.getBaseName(fileName), decode(Utf8FilenameUtils.getBaseName(buffer)), fileName);
+            assertEquals(FilenameUtils.getExtension(fileName), decode(Utf8FilenameUtils.getExtension(buffer)), fileName);
+            assertEquals(0, buffer.position());
+        }
+
+        assertEquals(3, Utf8FilenameUtils.indexOfLastSeparator("a/b/c".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(5, Utf8FilenameUtils.indexOfExtension("a/b/c.txt".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(-1, Utf8FilenameUtils.indexOfExtension("a.b/c".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> Utf8FilenameUtils.getName(utf8("a\0b")));
+    }
+
+    @Test
+    void slices() {
+        ByteBuffer buffer = utf8("xx/plugins/config.yml\nyy");
+        buffer.position(3).limit(21);
+
+        assertEquals("config.yml", decode(Utf8FilenameUtils.getName(buffer)));
+        assertEquals("config", decode(Utf8FilenameUtils.getBaseName(buffer)));
+        assertEquals("yml", decode(Utf8FilenameUtils.getExtension(buffer)));
+        assertEquals(10, Utf8FilenameUtils.indexOfLastSeparator(buffer));
+        assertEquals(0, Utf8FilenameUtils.getPrefixLength(buffer));
+        assertTrue(Utf8FilenameUtils.wildcardMatch(buffer, "plugins/*.yml"));
+        assertEquals(3, buffer.position());
+        assertEquals(21, buffer.limit());
+    }
+
+    @Test
+    void wildcardMatch() {
+        String[] patterns = {"*", "*.txt", "*.mca", "a/b/*", "*.???", "*.????", "?", "??", "r.?.*.mca", "*/*", "*.yml", "*\u00e9*", "*\u533a\u57df*", "A/*", "a*b*c*"};
+        for (String fileName : FILE_NAMES) {
+            for (String pattern : patterns) {
+                for (IOCase ioCase : new IOCase[]{IOCase.SENSITIVE, IOCase.INSENSITIVE}) {
+                    assertEquals(FilenameUtils.wildcardMatch(fileName, pattern, ioCase),
+                            Utf8FilenameUtils.wildcardMatch(utf8(fileName), pattern, ioCase),
+                            fileName + " ~ " + pattern);
+                }
+            }
+        }
+
+        assertTrue(Utf8FilenameUtils.wildcardMatch(utf8("\u00e9t\u00e9"), "?t?"));
+        assertTrue(Utf8FilenameUtils.wildcardMatch(utf8("abc"), "*?"));
+        assertFalse(Utf8FilenameUtils.wildcardMatch(utf8(""), "*?"));
+    }
+}
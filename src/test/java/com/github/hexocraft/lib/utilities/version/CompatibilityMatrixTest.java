@@ -0,0 +1,106 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class CompatibilityMatrixTest {
+
+    private static final List<Version> SERVERS = Arrays.asList(
+            new Version("1.8.8"), new Version("1.12.2"), new Version("1.13.2"), new Version("1.14.4"));
+
+    @Test
+    void queries() {
+        Map<String, VersionConstraint> constraints = new LinkedHashMap<>();
+        constraints.put("Legacy", VersionConstraint.parse(">=1.8 <1.13"));
+        constraints.put("Modern", VersionConstraint.parse(">=1.13"));
+        constraints.put("Any", VersionConstraint.ANY);
+        CompatibilityMatrix matrix = CompatibilityMatrix.compute(constraints, SERVERS);
+
+        assertEquals(Arrays.asList("Legacy", "Modern", "Any"), matrix.plugins());
+        assertTrue(matrix.isCompatible(0, 1));
+        assertFalse(matrix.isCompatible(0, 2));
+        assertEquals(bits(0, 1), matrix.row(0));
+        assertEquals(bits(2, 3), matrix.row("Modern"));
+        assertEquals(bits(1, 2), matrix.column(2));
+        assertEquals(Arrays.asList("Modern", "Any"), matrix.plugins(matrix.column(3)));
+        assertTrue(matrix.compatibleWithAll().isEmpty());
+
+        constraints.remove("Legacy");
+        matrix = CompatibilityMatrix.compute(constraints, SERVERS);
+        assertEquals(Arrays.asList(new Version("1.13.2"), new Version("1.14.4")), matrix.versions(matrix.compatibleWithAll()));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> CompatibilityMatrix.compute(constraints, SERVERS).isCompatible(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> CompatibilityMatrix.compute(constraints, SERVERS).row("Legacy"));
+    }
+
+    @Test
+    void largeMatrix() {
+        // Rows spanning several words
+        List<Version> versions = new ArrayList<>();
+        for (int minor = 0; minor < 150; minor++) {
+            versions.add(new Version(1, minor, 0));
+        }
+        Map<String, VersionConstraint> constraints = new LinkedHashMap<>();
+        for (int i = 0; i < 200; i++) {
+            constraints.put("Plugin" + i, VersionConstraint.parse(">=1." + (i % 150) + " || =1.149"));
+        }
+        CompatibilityMatrix matrix = CompatibilityMatrix.compute(constraints, versions);
+
+        for (int row = 0; row < 200; row++) {
+            for (int column = 0; column < 150; column++) {
+                assertEquals(column >= row % 150, matrix.isCompatible(row, column));
+            }
+        }
+        assertEquals(bits(149), matrix.compatibleWithAll());
+        assertEquals(200 * 3, matrix.toLongArray().length);
+        assertEquals(200, matrix.column(149).cardinality());
+        assertEquals(4, matrix.column(1).cardinality());
+    }
+
+    @Test
+    void csv() throws IOException {
+        Map<String, VersionConstraint> constraints = new LinkedHashMap<>();
+        constraints.put("Legacy", VersionConstraint.parse("<1.13"));
+        StringBuilder csv = new StringBuilder();
+        CompatibilityMatrix.compute(constraints, SERVERS).writeCsv(csv);
+        assertEquals("plugin,1.8.8,1.12.2,1.13.2,1.14.4\nLegacy,1,1,0,0\n", csv.toString());
+    }
+
+
+    // Helper functions
+    //--------------------------------------------------------------------------
+
+    private static BitSet bits(int... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) bits.set(index);
+        return bits;
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class MigrationRunnerTest {
+
+    private static MigrationRunner<String> runner() {
+        return new MigrationRunner<String>()
+                .register(new Version(2, 0, 0), "major", s -> s + ">2.0")
+                .register(new Version(1, 1, 0), "minor", s -> s + ">1.1")
+                .register(new SemVer("1.2.0-rc.1"), "rc", s -> s + ">1.2rc")
+                .register(new Version(1, 2, 0), "release", s -> s + ">1.2")
+                .register(new Version("1.2"), "cleanup", s -> s + ">1.2b");
+    }
+
+    @Test
+    void chain() {
+        MigrationRunner<String> runner = runner();
+        assertEquals(5, runner.size());
+        assertEquals(new SemVer("2.0.0"), runner.lastVersion());
+        assertNull(new MigrationRunner<String>().lastVersion());
+
+        assertEquals(Arrays.asList("minor", "rc", "release", "cleanup", "major"), runner.plan(new Version(1, 0, 0), new Version(2, 0, 0)));
+        assertEquals(Arrays.asList("release", "cleanup"), runner.plan(new Version("1.2.0-rc.1"), new Version(1, 5, 0)));
+        assertEquals(Collections.emptyList(), runner.plan(new Version(2, 0, 0), new Version(2, 0, 0)));
+        assertEquals(Collections.emptyList(), runner.plan(new Version(2, 0, 0), new Version(1, 0, 0)));
+
+        assertEquals("v>1.1>1.2rc", runner.run("v", new Version(1, 0, 0), new Version("1.2.0-rc.2")));
+        assertEquals("v>1.2>1.2b>2.0", runner.run("v", new SemVer("1.2.0-rc.1"), new SemVer("2.1.0")));
+        // Versions not Semantic Versioning compliant are migrated on their numbers
+        assertEquals("v>2.0", runner.run("v", new Version("git-Bukkit-1.7.10"), new Version("2.0")));
+    }
+
+    @Test
+    void failure() {
+        MigrationRunner<String> runner = new MigrationRunner<String>()
+                .register(new Version(1, 0, 0), "broken", s -> { throw new IllegalArgumentException("bad data"); });
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> runner.run("v", new Version(0, 1, 0), new Version(1, 0, 0)));
+        assertTrue(e.getMessage().contains("broken (1.0.0)"));
+        assertEquals("bad data", e.getCause().getMessage());
+    }
+
+    @Test
+    void stream() {
+        AtomicInteger calls = new AtomicInteger();
+        MigrationRunner<String> runner = runner().register(new Version(3, 0, 0), "counted", s -> {
+            calls.incrementAndGet();
+            return s;
+        });
+
+        List<String> migrated;
+        try (Stream<String> stream = runner.run(IntStream.range(0, 1000).mapToObj(String::valueOf), new Version(1, 2, 0), new Version(3, 0, 0))) {
+            // Lazy: nothing migrated before the stream is consumed
+            assertEquals(0, calls.get());
+            migrated = stream.limit(10).collect(Collectors.toList());
+        }
+        assertEquals(10, calls.get());
+        assertEquals("9>2.0", migrated.get(9));
+
+        Stream<String> unchanged = Stream.of("a");
+        assertSame(unchanged, runner.run(unchanged, new Version(3, 0, 0), new Version(3, 0, 0)));
+    }
+}
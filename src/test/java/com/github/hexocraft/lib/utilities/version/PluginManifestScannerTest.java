@@ -0,0 +1,141 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class PluginManifestScannerTest {
+
+    private Path root;
+
+
+    @BeforeEach
+    public void init() throws IOException {
+        root = Files.createTempDirectory("plugins");
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void description() throws IOException {
+        PluginManifestScanner.Plugin plugin = read("main: a.b.C\nname: Essentials\nversion: 2.17.1.0 # build 42\n");
+        assertEquals("Essentials", plugin.name);
+        assertEquals("2.17.1.0", plugin.versionString);
+        assertEquals("2.17.1", String.valueOf(plugin.version));
+        assertNull(plugin.semVer);
+
+        plugin = read("\ufeffname: 'World\u00e9dit'\r\nversion: \"6.1.9-SNAPSHOT\"\r\n");
+        assertEquals("World\u00e9dit", plugin.name);
+        assertEquals(new SemVer("6.1.9-SNAPSHOT"), plugin.semVer);
+        assertEquals(new Version("6.1.9-SNAPSHOT"), plugin.version);
+
+        // Only top level keys
+        plugin = read("commands:\n  test:\n    version: 9.9.9\nname: Test\nversion: 1.0");
+        assertEquals("Test", plugin.name);
+        assertEquals("1.0", plugin.versionString);
+        assertEquals("1.0.0", String.valueOf(plugin.version));
+
+        plugin = read("name: NoVersion\nversion:\n");
+        assertEquals("NoVersion", plugin.name);
+        assertNull(plugin.versionString);
+        assertNull(plugin.version);
+        assertNull(plugin.semVer);
+    }
+
+    @Test
+    void scanDirectory() throws IOException {
+        jar("b.jar", "name: B\nversion: 2.0.0\n");
+        jar("a.jar", "name: A\nversion: 1.0.0-rc.1\n");
+        jar("library.jar", null);
+        Files.write(root.resolve("broken.jar"), new byte[]{1, 2, 3});
+        Files.write(root.resolve("readme.txt"), new byte[]{1, 2, 3});
+
+        List<PluginManifestScanner.Plugin> plugins = PluginManifestScanner.scanDirectory(root);
+        assertEquals(Arrays.asList("A", "B"), plugins.stream().map(p -> p.name).collect(Collectors.toList()));
+        assertEquals(new SemVer("1.0.0-rc.1"), plugins.get(0).semVer);
+        assertEquals(root.resolve("b.jar"), plugins.get(1).jar);
+
+        assertNull(PluginManifestScanner.read(root.resolve("library.jar")));
+        assertThrows(IOException.class, () -> PluginManifestScanner.read(root.resolve("broken.jar")));
+    }
+
+    @Test
+    void scanInParallel() throws IOException {
+        List<Path> jars = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            jars.add(jar("plugin" + i + ".jar", "name: Plugin" + i + "\nversion: 1." + i + ".0\n"));
+        }
+
+        // Order of the jars kept
+        List<PluginManifestScanner.Plugin> plugins = PluginManifestScanner.scan(jars);
+        assertEquals(64, plugins.size());
+        for (int i = 0; i < 64; i++) {
+            assertEquals("Plugin" + i, plugins.get(i).name);
+            assertEquals(new SemVer(1, i, 0), plugins.get(i).semVer);
+        }
+    }
+
+
+    // Helper functions
+    //--------------------------------------------------------------------------
+
+    private PluginManifestScanner.Plugin read(String description) throws IOException {
+        return PluginManifestScanner.read(root, new ByteArrayInputStream(description.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Path jar(String name, String description) throws IOException {
+        Path jar = root.resolve(name);
+        try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zip.write("Manifest-Version: 1.0\n".getBytes(StandardCharsets.US_ASCII));
+            if (description != null) {
+                zip.putNextEntry(new ZipEntry(PluginManifestScanner.PLUGIN_YML));
+                zip.write(description.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return jar;
+    }
+}
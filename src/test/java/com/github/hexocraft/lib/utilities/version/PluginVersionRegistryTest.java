@@ -0,0 +1,104 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import com.github.hexocraft.lib.MineMock;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PluginVersionRegistryTest {
+
+    @BeforeAll
+    public void init() {
+        MineMock.start();
+    }
+
+    @AfterAll
+    public void cleanUp() {
+        MineMock.stop();
+    }
+
+    @Test
+    void lookups() {
+        PluginVersionRegistry registry = new PluginVersionRegistry();
+        registry.refresh(new Plugin[]{
+                MineMock.createFakePlugin("WorldEdit", "6.1.9;caf0ad9"),
+                MineMock.createFakePlugin("Essentials", "2.17.1-SNAPSHOT"),
+                MineMock.createFakePlugin("Custom", "dev")});
+
+        assertEquals(3, registry.size());
+        assertTrue(registry.contains("Custom"));
+        assertNull(registry.getVersion("Custom"));
+        assertFalse(registry.satisfies("Custom", VersionConstraint.ANY));
+        assertEquals(2, registry.getVersions().size());
+
+        assertEquals("6.1.9", String.valueOf(registry.getVersion("WorldEdit")));
+        assertNull(registry.getSemVer("WorldEdit"));
+        assertEquals(new SemVer("2.17.1-SNAPSHOT"), registry.getSemVer("Essentials"));
+
+        assertTrue(registry.satisfies("WorldEdit", ">=6.1 <7"));
+        assertFalse(registry.satisfies("WorldEdit", "^7.0.0"));
+        assertTrue(registry.satisfies("Essentials", "<2.17.1"));
+        assertFalse(registry.satisfies("worldedit", "*"));
+        assertThrows(IllegalArgumentException.class, () -> registry.satisfies("WorldEdit", "not a constraint"));
+
+        // Bounded cache: constraints beyond the limit are still evaluated
+        for (int i = 0; i < 2 * PluginVersionRegistry.MAX_CACHED_CONSTRAINTS; i++) {
+            assertEquals(i >= 2, registry.satisfies("WorldEdit", "<=6." + i));
+        }
+        assertEquals(PluginVersionRegistry.MAX_CACHED_CONSTRAINTS, registry.cachedConstraintCount());
+    }
+
+    @Test
+    void events() {
+        PluginVersionRegistry registry = new PluginVersionRegistry();
+        List<String> changes = new ArrayList<>();
+        registry.addChangeListener((name, oldVersion, newVersion) -> changes.add(name + ": " + oldVersion + " -> " + newVersion));
+
+        Plugin plugin = MineMock.createFakePlugin("Vault", "1.6.7");
+        registry.onPluginEnable(new PluginEnableEvent(plugin));
+        assertTrue(registry.satisfies("Vault", "~1.6"));
+
+        // Same version: no notification
+        registry.add(plugin);
+        registry.add(MineMock.createFakePlugin("Vault", "1.7.0"));
+        assertTrue(registry.satisfies("Vault", "~1.7"));
+
+        registry.onPluginDisable(new PluginDisableEvent(plugin));
+        assertFalse(registry.contains("Vault"));
+        registry.remove("Vault");
+
+        assertEquals(3, changes.size());
+        assertEquals("Vault: null -> 1.6.7", changes.get(0));
+        assertEquals("Vault: 1.6.7 -> 1.7.0", changes.get(1));
+        assertEquals("Vault: 1.7.0 -> null", changes.get(2));
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class SemVerBloomFilterTest {
+
+    @Test
+    void membership() {
+        SemVerBloomFilter filter = new SemVerBloomFilter(10_000, 0.01);
+        assertEquals(0, filter.bitCount());
+        assertFalse(filter.mightContain(new SemVer("1.0.0")));
+
+        assertTrue(filter.put(new SemVer("1.0.0-rc.1")));
+        assertFalse(filter.put(new SemVer("1.0.0-rc.1")));
+        assertTrue(filter.mightContain(new SemVer("1.0.0-rc.1")));
+        // Build meta data is ignored
+        assertTrue(filter.mightContain(new SemVer("1.0.0-rc.1+b42")));
+        assertFalse(filter.mightContain(new SemVer("1.0.0")));
+        assertFalse(filter.mightContain(new SemVer("1.0.0-rc.2")));
+
+        assertTrue(filter.put("WorldEdit", new SemVer("7.0.0")));
+        assertTrue(filter.mightContain("WorldEdit", new SemVer("7.0.0")));
+        assertFalse(filter.mightContain("WorldGuard", new SemVer("7.0.0")));
+        assertFalse(filter.mightContain(new SemVer("7.0.0")));
+        // Versions put without artifact are not those of an artifact with a zero hash
+        assertEquals(0, "".hashCode());
+        assertTrue(filter.put(new SemVer("8.0.0")));
+        assertFalse(filter.mightContain("", new SemVer("8.0.0")));
+        assertTrue(filter.put("", new SemVer("9.0.0")));
+        assertFalse(filter.mightContain(new SemVer("9.0.0")));
+
+        // Same versions as SemVer.equals, tags in any order
+        assertTrue(filter.put(new SemVer("1.0.0-a-x")));
+        assertTrue(filter.mightContain(new SemVer("1.0.0-x-a+b1")));
+        assertFalse(filter.mightContain(new SemVer("1.0.0-a-y")));
+
+        assertThrows(IllegalArgumentException.class, () -> new SemVerBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new SemVerBloomFilter(10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SemVerBloomFilter(10, Double.NaN));
+    }
+
+    @Test
+    void largeNumbers() {
+        SemVerBloomFilter filter = new SemVerBloomFilter(1_000, 0.01);
+        filter.put(new SemVer("30000000.0.0"));
+        filter.put(new SemVer("1.3000000.0"));
+        filter.put(new SemVer("1.0.3000000"));
+        filter.put(new SemVer(1, -1, 0));
+
+        assertTrue(filter.mightContain(new SemVer("30000000.0.0")));
+        // Versions sharing a saturated packed key are not confused
+        assertFalse(filter.mightContain(new SemVer("30000001.0.0")));
+        assertFalse(filter.mightContain(new SemVer("20231015.0.0")));
+        assertFalse(filter.mightContain(new SemVer("1.3000001.0")));
+        assertFalse(filter.mightContain(new SemVer("1.0.3000001")));
+        assertFalse(filter.mightContain(new SemVer(1, -2, 0)));
+    }
+
+    @Test
+    void falsePositives() {
+        SemVerBloomFilter filter = new SemVerBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).parallel().forEach(i -> filter.put(version(i)));
+
+        // No false negative, even when put concurrently
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(version(i)));
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(version(i)))
+                falsePositives++;
+        }
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveProbability() < 0.02);
+    }
+
+    @Test
+    void merge() {
+        SemVerBloomFilter server1 = new SemVerBloomFilter(1_000, 0.01);
+        SemVerBloomFilter server2 = new SemVerBloomFilter(1_000, 0.01);
+        server1.put("a", new SemVer("1.0.0"));
+        server2.put("b", new SemVer("2.0.0-beta"));
+
+        assertTrue(server1.isCompatible(server2));
+        server1.merge(server2);
+        assertTrue(server1.mightContain("a", new SemVer("1.0.0")));
+        assertTrue(server1.mightContain("b", new SemVer("2.0.0-beta")));
+        assertFalse(server2.mightContain("a", new SemVer("1.0.0")));
+
+        SemVerBloomFilter other = new SemVerBloomFilter(100_000, 0.01);
+        assertFalse(server1.isCompatible(other));
+        assertThrows(IllegalArgumentException.class, () -> server1.merge(other));
+    }
+
+    @Test
+    void serialization() throws IOException {
+        SemVerBloomFilter filter = new SemVerBloomFilter(1_000, 0.001);
+        for (int i = 0; i < 500; i++) {
+            filter.put(version(i));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.writeTo(new DataOutputStream(bytes));
+        SemVerBloomFilter read = SemVerBloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertTrue(filter.isCompatible(read));
+        assertEquals(filter.bitCount(), read.bitCount());
+        for (int i = 0; i < 500; i++) {
+            assertTrue(read.mightContain(version(i)));
+        }
+
+        // Size checked before any allocation
+        assertThrows(IOException.class, () -> SemVerBloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 1024));
+        assertEquals(filter.bitSize(), SemVerBloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), filter.bitSize()).bitSize());
+        byte[] hostile = bytes.toByteArray();
+        hostile[5] = hostile[6] = hostile[7] = hostile[8] = (byte) 0xFF;
+        assertThrows(IOException.class, () -> SemVerBloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(hostile))));
+        hostile[5] = 0x7F;
+        assertThrows(IOException.class, () -> SemVerBloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(hostile))));
+
+        byte[] corrupted = bytes.toByteArray();
+        corrupted[0] = 0;
+        assertThrows(IOException.class, () -> SemVerBloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(corrupted))));
+    }
+
+
+    // Helper functions
+    //--------------------------------------------------------------------------
+
+    private static SemVer version(int i) {
+        return i % 4 == 0 ? new SemVer(i / 1000, i % 1000 / 10, i % 10, "rc-" + i) : new SemVer(i / 1000, i % 1000 / 10, i % 10 + i % 4 * 10);
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class SemVerMapTest {
+
+    private static final String[] TAGS = {"", "-alpha", "-alpha.1", "-beta", "-rc.1", "-rc.10", "-SNAPSHOT", "+b1"};
+
+    @Test
+    void navigation() {
+        SemVerMap<String> map = new SemVerMap<>(0);
+        assertNull(map.firstEntry());
+        map.put(new SemVer("1.0.0"), "a");
+        map.put(new SemVer("1.2.0"), "b");
+        map.put(new SemVer("1.2.0-rc.1"), "b-rc");
+        map.put(new SemVer("2.0.0"), "c");
+        assertEquals("c", map.put(new SemVer("2.0.0+build"), "d"));
+        assertEquals(4, map.size());
+        assertEquals("{1.0.0=a, 1.2.0-rc.1=b-rc, 1.2.0=b, 2.0.0=d}", map.toString());
+
+        assertEquals("b", Objects.requireNonNull(map.floorEntry(new SemVer("1.5.0"))).getValue());
+        assertEquals("b-rc", Objects.requireNonNull(map.floorEntry(new SemVer("1.2.0-rc.2"))).getValue());
+        assertEquals("b-rc", Objects.requireNonNull(map.ceilingEntry(new SemVer("1.2.0-beta"))).getValue());
+        assertEquals("a", Objects.requireNonNull(map.lowerEntry(new SemVer("1.2.0-rc.1"))).getValue());
+        assertEquals("b", Objects.requireNonNull(map.higherEntry(new SemVer("1.2.0-rc.1"))).getValue());
+        assertNull(map.floorEntry(new SemVer("0.9.0")));
+        assertNull(map.ceilingEntry(new SemVer("2.0.1")));
+        assertEquals(new SemVer("1.0.0"), Objects.requireNonNull(map.firstEntry()).getKey());
+        assertEquals("d", Objects.requireNonNull(map.lastEntry()).getValue());
+
+        assertEquals(Arrays.asList("b-rc", "b"), map.subMap(new SemVer("1.1.0"), new SemVer("2.0.0")).values());
+        assertEquals(Arrays.asList("a", "b-rc"), map.subMap(new SemVer("1.0.0"), true, new SemVer("1.2.0"), false).values());
+        assertTrue(map.subMap(new SemVer("2.0.0"), new SemVer("1.0.0")).isEmpty());
+
+        // Migrations: after the stored version, up to the current one
+        assertEquals(Arrays.asList("b-rc", "b", "d"), map.migrations(new SemVer("1.0.0"), new SemVer("2.0.0")));
+        assertEquals(Arrays.asList("a", "b-rc"), map.migrations(new SemVer("0.1.0"), new SemVer("1.2.0-rc.5")));
+        assertTrue(map.migrations(new SemVer("2.0.0"), new SemVer("1.0.0")).isEmpty());
+
+        assertEquals("b-rc", map.remove(new SemVer("1.2.0-rc.1")));
+        assertNull(map.remove(new SemVer("1.2.0-rc.1")));
+        assertFalse(map.containsKey(new SemVer("1.2.0-rc.1")));
+        assertEquals(Arrays.asList(new SemVer("1.0.0"), new SemVer("1.2.0"), new SemVer("2.0.0")), map.keys());
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void sameAsTreeMap() {
+        Random random = new Random(11);
+        SemVerMap<Integer> map = new SemVerMap<>();
+        TreeMap<SemVer, Integer> expected = new TreeMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            SemVer version = randomVersion(random);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    assertEquals(expected.put(version, i), map.put(version, i));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(version), map.remove(version));
+                    break;
+                default:
+                    assertEquals(expected.get(version), map.get(version));
+                    assertEquals(value(expected.floorEntry(version)), value(map.floorEntry(version)));
+                    assertEquals(value(expected.ceilingEntry(version)), value(map.ceilingEntry(version)));
+                    assertEquals(value(expected.lowerEntry(version)), value(map.lowerEntry(version)));
+                    assertEquals(value(expected.higherEntry(version)), value(map.higherEntry(version)));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(new ArrayList<>(expected.values()), map.values());
+
+        SemVer from = new SemVer("1.1.0"), to = new SemVer("2.1.0-rc.1");
+        assertEquals(new ArrayList<>(expected.subMap(from, false, to, true).values()), map.migrations(from, to));
+    }
+
+
+    // Helper functions
+    //--------------------------------------------------------------------------
+
+    private static SemVer randomVersion(Random random) {
+        // Some numbers too large to be packed
+        int major = random.nextInt(20) == 0 ? Integer.MAX_VALUE - random.nextInt(2) : random.nextInt(3);
+        return new SemVer(major + "." + random.nextInt(3) + "." + random.nextInt(3) + TAGS[random.nextInt(TAGS.length)]);
+    }
+
+    private static Integer value(Map.Entry<SemVer, Integer> entry) {
+        return entry == null ? null : entry.getValue();
+    }
+}
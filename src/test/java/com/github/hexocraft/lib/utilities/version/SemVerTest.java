@@ -25,7 +25,21 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -185,4 +199,250 @@ class SemVerTest {
         assertFalse(Objects.requireNonNull(SemVer.parse("1.0.0")).isUpdateCompatibleFor(SemVer.parse("0.1.0")));
         assertFalse(Objects.requireNonNull(SemVer.parse("2.1.0")).isUpdateCompatibleFor(SemVer.parse("1.1.0")));
     }
+
+    @Test
+    void diff() {
+        assertDiff(SemVer.Change.MAJOR, 2, "1.9.9", "3.0.0");
+        assertDiff(SemVer.Change.MAJOR, -1, "2.0.0", "1.5.0-rc.1");
+        assertDiff(SemVer.Change.MINOR, 3, "1.2.9", "1.5.0");
+        assertDiff(SemVer.Change.PATCH, -4, "1.2.7", "1.2.3+b1");
+        assertDiff(SemVer.Change.PRE_RELEASE, 1, "1.2.3-rc.1", "1.2.3");
+        assertDiff(SemVer.Change.PRE_RELEASE, -1, "1.2.3-rc.2", "1.2.3-rc.1");
+        assertDiff(SemVer.Change.BUILD, 0, "1.2.3-rc.1+b1", "1.2.3-rc.1+b2");
+        assertDiff(SemVer.Change.NONE, 0, "1.2.3-alpha-beta+b1", "1.2.3-beta-alpha+b1");
+        // Tags that compareTo does not order: changed, without distance
+        assertDiff(SemVer.Change.PRE_RELEASE, 0, "1.0.0-a-x", "1.0.0-a-y");
+        assertDiff(SemVer.Change.PRE_RELEASE, 0, "1.0.0-a-y", "1.0.0-a-x");
+        assertDiff(SemVer.Change.PRE_RELEASE, 0, "1.0.0-rc-1", "1.0.0-rc-01");
+        assertDiff(SemVer.Change.PRE_RELEASE, 1, "1.0.0-a", "1.0.0-a-b");
+        assertDiff(SemVer.Change.PRE_RELEASE, -1, "1.0.0-a-b", "1.0.0-a");
+        assertDiff(SemVer.Change.MAJOR, -2147483647L, "2147483647.0.0", "0.0.0");
+    }
+
+    @Test
+    void formatting() throws IOException {
+        String[] versions = {"1.0.0", "1.2.3-alpha.1-beta+build.7", "10.20.30-a+b", "2147483647.0.0"};
+        for (String version : versions) {
+            SemVer semVer = new SemVer(version);
+            String expected = semVer.toString();
+            assertEquals(expected.length(), semVer.encodedLength(), version);
+            assertEquals("[" + expected, semVer.appendTo(new StringBuilder("[")).toString());
+            assertEquals(expected, semVer.appendTo((Appendable) new StringWriter()).toString());
+
+            for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64)}) {
+                buffer.put((byte) '[');
+                semVer.writeUtf8(buffer);
+                assertEquals(1 + semVer.encodedLength(), buffer.position());
+                buffer.flip();
+                buffer.get();
+                assertEquals(expected, StandardCharsets.UTF_8.decode(buffer).toString());
+            }
+        }
+
+        ByteBuffer small = ByteBuffer.allocate(4);
+        assertThrows(BufferOverflowException.class, () -> new SemVer("1.2.3-rc").writeUtf8(small));
+        assertEquals(0, small.position());
+    }
+
+    @Test
+    void check() {
+        String[] versions = {"1.2.3", "0.0.0", "01.2.3", "1.2.03", "1.2.3-", "1.2.3+", "1.2.3-a+", "1.2.3-.a", "1.2.3+.a",
+                "1.2.3-a.-b", "1.2.3-a-", "1.2.3-a+.b", "1.2.3-a+b+c", ".1.2", "1.2", "1.2.3.4", "2147483647.0.0",
+                "2147483648.0.0", "1.2.3-rele..ase", "1.2.3-a--b", "1.2.3++b", "1.2.3-a-+b", "^.1.2", "1.2.3-\u00e9"};
+        for (String version : versions) {
+            assertEquals(isLegacySemver(version), SemVer.check(version) == SemVer.ParseStatus.VALID, version);
+        }
+
+        // Random strings over the characters meaningful to the grammar
+        final char[] alphabet = "0123456789..--+a^".toCharArray();
+        final Random random = new Random(42);
+        for (int n = 0; n < 50000; n++) {
+            final char[] version = new char[5 + random.nextInt(8)];
+            for (int i = 0; i < version.length; i++) {
+                version[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            final String s = new String(version);
+            assertEquals(isLegacySemver(s), SemVer.isSemver(s), s);
+        }
+
+        assertEquals(SemVer.ParseStatus.VALID, SemVer.check("1.2.3-alpha.1+build"));
+        assertEquals(SemVer.ParseStatus.INVALID_NUMBER, SemVer.check("01.2.3"));
+        assertEquals(SemVer.ParseStatus.INVALID_NUMBER, SemVer.check("a.2.3"));
+        assertEquals(SemVer.ParseStatus.NUMBER_TOO_LARGE, SemVer.check("1.2.99999999999"));
+        assertEquals(SemVer.ParseStatus.MISSING_DOT, SemVer.check("1.2"));
+        assertEquals(SemVer.ParseStatus.INVALID_SEQUENCE, SemVer.check("1.2.3-rele..ase"));
+        assertEquals(SemVer.ParseStatus.INVALID_TAG, SemVer.check("1.2.3-a+"));
+        assertEquals(SemVer.ParseStatus.INVALID_NUMBER, SemVer.check("git-Spigot-1.12.2"));
+        assertEquals(SemVer.ParseStatus.INVALID_TAG, SemVer.check("1.12.2.R0"));
+        assertNull(SemVer.parse("1.2.99999999999"));
+        assertThrows(IllegalArgumentException.class, () -> new SemVer("1.2.99999999999"));
+        assertEquals("1.2.3-a", new SemVer("1.2.3-a-").toString());
+        assertEquals("1.2.3-a.-b+c", new SemVer("1.2.3-a.-b+c").toString());
+    }
+
+    /**
+     * Regex based parsing used before {@link SemVer#check(CharSequence)}.
+     */
+    private static boolean isLegacySemver(String version) {
+        final Pattern p = Pattern.compile("^(?!.*\\-{2}.*)(?!.*\\+{2}.*)(?!.*\\.{2}.*)(?!.*\\+\\-.*)(?!.*\\-\\+.*)(?<Major>(?!0)(\\d*)|([0^\\d]))\\.(?<Minor>(?!0)(\\d*)|([0^\\d]))\\.(?<Patch>(?!0)(\\d*)|([0^\\d]))(?![\\+\\-][^a-zA-Z0-9])(\\-(?<PreRelease>[a-zA-Z0-9\\.-]+))?(\\+(?<Build>[a-zA-Z0-9\\.-]+))?$");
+        final Matcher m = p.matcher(version);
+        try {
+            return m.matches() && Integer.parseInt(m.group("Major")) >= 0 && Integer.parseInt(m.group("Minor")) >= 0
+                    && Integer.parseInt(m.group("Patch")) >= 0;
+        }
+        catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @Test
+    void hashing() {
+        SemVer v1 = new SemVer("1.0.0-alpha-alpha.1+build");
+        SemVer v2 = new SemVer("1.0.0-alpha.1-alpha+build");
+        assertEquals(v1, v2);
+        assertEquals(v1.hashCode(), v2.hashCode());
+        assertSame(v1.toString(), v1.toString());
+
+        // Overlapping but different tags are not equal
+        assertNotEquals(new SemVer("1.0.0-alpha"), new SemVer("1.0.0-alpha-beta"));
+        assertNotEquals(new SemVer("1.0.0-alpha"), new SemVer("1.0.0"));
+        assertNotEquals(new SemVer("1.0.0+a"), new SemVer("1.0.0+b"));
+        assertEquals(new SemVer("1.0.0-01-1"), new SemVer("1.0.0-1-01"));
+        assertEquals(new SemVer("1.0.0-01-1").hashCode(), new SemVer("1.0.0-1-01").hashCode());
+
+        Set<SemVer> set = new HashSet<>();
+        set.add(v1);
+        assertTrue(set.contains(v2));
+        assertFalse(set.contains(new SemVer("1.0.0-alpha+build")));
+    }
+
+    @Test
+    void compactTags() {
+        // The parsed string is kept as is, tags are read from it
+        String string = "1.12.2-R0.1-SNAPSHOT+b42";
+        SemVer version = new SemVer(string);
+        assertSame(string, version.toString());
+        assertEquals(Arrays.asList("R0.1", "SNAPSHOT"), version.preReleaseTags());
+        assertEquals("b42", version.buildMetaData());
+        assertTrue(version.hasPreReleaseTag("SNAPSHOT"));
+        assertFalse(version.hasPreReleaseTag("SNAP"));
+        assertTrue(version.hasBuildMetaTag("b42"));
+
+        // Same canonical form, whatever the constructor
+        assertEquals("1.0.0-a-b", new SemVer("1.0.0-a-b-").toString());
+        assertEquals("1.0.0-a-b+c", new SemVer(1, 0, 0, "a-b", "c").toString());
+        assertEquals(Arrays.asList("a", "b"), new SemVer(1, 0, 0, "a-b", "c").preReleaseTags());
+        assertEquals(new SemVer("1.0.0-a-b+c"), new SemVer(1, 0, 0, "a-b", "c"));
+
+        // Pre-parsed numeric tags keep the number aware order
+        assertTrue(new SemVer("1.0.0-9").isLessThan(new SemVer("1.0.0-10")));
+        assertTrue(new SemVer("1.0.0-10").isLessThan(new SemVer("1.0.0-alpha")));
+        assertTrue(new SemVer("1.0.0-99999999999").isGreaterThan(new SemVer("1.0.0-2147483647")));
+        assertEquals(0, new SemVer("1.0.0-007").compareTo(new SemVer("1.0.0-7")));
+    }
+
+    @Test
+    void footprint() throws IllegalAccessException {
+        // Parsed string shared with the caller: only the version and its tag index are retained
+        assertTrue(retainedSize(new SemVer("1.12.2")) <= 56);
+        assertTrue(retainedSize(new SemVer("1.12.2-R0.1-SNAPSHOT")) <= 80);
+        assertTrue(retainedSize(new SemVer("1.0.0-alpha-beta-rc.1-rc.2+build.5")) <= 112);
+    }
+
+
+    @Test
+    void parseRange() {
+        String manifest = "version: 1.12.2-R0.1-SNAPSHOT\napi-version: 1.13\n";
+        int start = manifest.indexOf(' ') + 1;
+        int end = manifest.indexOf('\n');
+        assertEquals(new SemVer("1.12.2-R0.1-SNAPSHOT"), SemVer.parse(manifest, start, end));
+        assertEquals(new SemVer("1.12.2-R0.1"), SemVer.parse(new StringBuilder(manifest), start, end - 9));
+        assertEquals(SemVer.ParseStatus.VALID, SemVer.check(manifest, start, end));
+
+        // The region is checked alone
+        assertEquals(SemVer.ParseStatus.INVALID_NUMBER, SemVer.check("1.2.034", 0, 6));
+        assertEquals(new SemVer("1.2.3"), SemVer.parse("1.2.34", 0, 5));
+        assertEquals(SemVer.ParseStatus.MISSING_DOT, SemVer.check("1.2.3", 0, 3));
+        assertNull(SemVer.parse(manifest, 0, end));
+        assertNull(SemVer.parse(manifest, start, start));
+        assertThrows(IndexOutOfBoundsException.class, () -> SemVer.parse(manifest, start, manifest.length() + 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> SemVer.check(manifest, end, start));
+
+        // Same results as the string parser
+        for (String version : new String[]{"1.0.0", "1.0.0-alpha-beta+build.1", "1.0.0-a-", "01.0.0", "1.0.0+", "1.0", "1.0.0-\u00e9"}) {
+            String padded = "[" + version + "]";
+            assertEquals(SemVer.check(version), SemVer.check(padded, 1, padded.length() - 1), version);
+            assertEquals(SemVer.parse(version), SemVer.parse(padded, 1, padded.length() - 1), version);
+        }
+    }
+
+    @Test
+    void parseByteBuffer() {
+        byte[] manifest = "version: 1.0.0-rc.1+b5\nname: \u00e9t\u00e9 1.0.0-\u00e9\n".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(manifest);
+        assertEquals(new SemVer("1.0.0-rc.1+b5"), SemVer.parse(buffer, 9, 22));
+        assertEquals(0, buffer.position());
+
+        buffer.position(9).limit(22);
+        assertEquals(new SemVer("1.0.0-rc.1+b5"), SemVer.parse(buffer));
+        assertEquals(9, buffer.position());
+        assertEquals(22, buffer.limit());
+
+        // Multi-byte sequences are never valid
+        buffer.clear();
+        int start = manifest.length - 9;
+        assertEquals("1.0.0-\u00e9", new String(manifest, start, 8, StandardCharsets.UTF_8));
+        assertNull(SemVer.parse(buffer, start, manifest.length - 1));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(16);
+        direct.put("2.1.0".getBytes(StandardCharsets.US_ASCII)).flip();
+        assertEquals(new SemVer(2, 1, 0), SemVer.parse(direct));
+        assertThrows(IndexOutOfBoundsException.class, () -> SemVer.parse(direct, 0, 6));
+    }
+
+
+    // Helper functions
+    //--------------------------------------------------------------------------
+
+    private static void assertDiff(SemVer.Change change, long distance, String from, String to) {
+        final long diff = new SemVer(from).diff(new SemVer(to));
+        assertEquals(Integer.signum(new SemVer(to).compareTo(new SemVer(from))), Long.signum(SemVer.Change.distance(diff)), from + " -> " + to);
+        assertEquals(change, SemVer.Change.of(diff), from + " -> " + to);
+        assertEquals(distance, SemVer.Change.distance(diff), from + " -> " + to);
+    }
+
+    /**
+     * JOL-like estimate of the memory retained by a version, besides its string: 12 bytes object headers, 16 bytes
+     * array headers, 4 bytes references (compressed oops) and 8 bytes alignment.
+     */
+    private static long retainedSize(SemVer version) throws IllegalAccessException {
+        long size = 12;
+        long arrays = 0;
+        for (Field field : SemVer.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()))
+                continue;
+            final Class<?> type = field.getType();
+            size += sizeOf(type);
+            if (type.isArray()) {
+                field.setAccessible(true);
+                final Object array = field.get(version);
+                arrays += align(16 + Array.getLength(array) * sizeOf(type.getComponentType()));
+            }
+            else {
+                assertTrue(type.isPrimitive() || type == String.class, "Unexpected field " + field);
+            }
+        }
+        return align(size) + arrays;
+    }
+
+    private static long sizeOf(Class<?> type) {
+        if (type == long.class || type == double.class) return 8;
+        if (type == byte.class || type == boolean.class) return 1;
+        if (type == short.class || type == char.class) return 2;
+        return 4;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7;
+    }
 }
@@ -0,0 +1,130 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class SemVersTest {
+
+    private static final String[] TAGS = {"", "-alpha", "-alpha.1", "-beta", "-rc.2", "-rc.10", "-R0.1-SNAPSHOT", "-1", "-01"};
+    private static final String[] BUILDS = {"", "", "+b1", "+b2"};
+
+    @Test
+    void sort() {
+        List<SemVer> versions = randomVersions(new Random(42), 20_000, 5);
+        List<SemVer> expected = new ArrayList<>(versions);
+        Collections.sort(expected);
+
+        SemVers.sort(versions);
+        // Same order, including the order of the versions comparing equal
+        assertEquals(toStrings(expected), toStrings(versions));
+    }
+
+    @Test
+    void sortLargeNumbers() {
+        List<SemVer> versions = new ArrayList<>(Arrays.asList(
+                new SemVer("20181231.0.0"), new SemVer("1.0.0-rc.1"), new SemVer("1.0.0"), new SemVer("0.2147483647.0"),
+                new SemVer("20181230.9.0"), new SemVer("0.2147483646.5"), new SemVer(1, -1, 0)));
+        SemVers.sort(versions);
+        assertEquals(Arrays.asList("0.2147483646.5", "0.2147483647.0", "1.-1.0", "1.0.0-rc.1", "1.0.0", "20181230.9.0", "20181231.0.0"),
+                toStrings(versions));
+
+        List<SemVer> single = new ArrayList<>(Collections.singletonList(new SemVer("1.0.0")));
+        SemVers.sort(single);
+        assertEquals(1, single.size());
+    }
+
+    @Test
+    void sortDistinct() {
+        List<SemVer> versions = randomVersions(new Random(7), 5_000, 3);
+        List<SemVer> expected = new ArrayList<>(new LinkedHashSet<>(versions));
+        Collections.sort(expected);
+
+        List<SemVer> distinct = SemVers.sortDistinct(versions);
+        assertEquals(toStrings(expected), toStrings(distinct));
+        assertEquals(5_000, versions.size());
+
+        // Equal for compareTo but not for equals: all kept
+        List<SemVer> builds = Arrays.asList(new SemVer("1.0.0+a"), new SemVer("1.0.0+b"), new SemVer("1.0.0+a"));
+        assertEquals(Arrays.asList("1.0.0+a", "1.0.0+b"), toStrings(SemVers.sortDistinct(builds)));
+    }
+
+    @Test
+    void collector() {
+        List<SemVer> versions = randomVersions(new Random(3), 10_000, 4);
+        List<SemVer> expected = SemVers.sortDistinct(versions);
+
+        assertEquals(toStrings(expected), toStrings(versions.parallelStream().collect(SemVers.toSortedDistinctList())));
+        assertTrue(versions.stream().limit(0).collect(SemVers.toSortedDistinctList()).isEmpty());
+    }
+
+
+    @Test
+    void diff() {
+        SemVer[] installed = {new SemVer("1.0.0"), new SemVer("1.2.0"), new SemVer("2.0.0-rc.1"), new SemVer("3.1.4+b1")};
+        SemVer[] available = {new SemVer("1.0.1"), new SemVer("1.4.0"), new SemVer("2.0.0"), new SemVer("3.1.4+b2")};
+        long[] diffs = new long[installed.length];
+        SemVers.diff(installed, available, diffs);
+
+        for (int i = 0; i < diffs.length; i++) {
+            assertEquals(installed[i].diff(available[i]), diffs[i]);
+        }
+        assertEquals(2, SemVer.Change.distance(diffs[1]));
+        assertArrayEquals(new int[]{0, 1, 1, 1, 1, 0}, SemVers.countChanges(diffs));
+
+        SemVer[] tagged = {new SemVer("1.0.0-a-x"), new SemVer("1.0.0-a-x+b1")};
+        SemVer[] retagged = {new SemVer("1.0.0-a-y"), new SemVer("1.0.0-x-a+b1")};
+        long[] tagDiffs = new long[tagged.length];
+        SemVers.diff(tagged, retagged, tagDiffs);
+        assertEquals(SemVer.Change.PRE_RELEASE, SemVer.Change.of(tagDiffs[0]));
+        assertEquals(0, SemVer.Change.distance(tagDiffs[0]));
+        assertEquals(SemVer.Change.NONE, SemVer.Change.of(tagDiffs[1]));
+        assertArrayEquals(new int[]{1, 0, 1, 0, 0, 0}, SemVers.countChanges(tagDiffs));
+
+        assertThrows(IllegalArgumentException.class, () -> SemVers.diff(installed, available, new long[1]));
+    }
+
+
+    // Helper functions
+    //--------------------------------------------------------------------------
+
+    private static List<SemVer> randomVersions(Random random, int count, int bound) {
+        List<SemVer> versions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            versions.add(new SemVer(random.nextInt(bound) + "." + random.nextInt(bound) + "." + random.nextInt(bound)
+                    + TAGS[random.nextInt(TAGS.length)] + BUILDS[random.nextInt(BUILDS.length)]));
+        }
+        return versions;
+    }
+
+    private static List<String> toStrings(List<SemVer> versions) {
+        return versions.stream().map(SemVer::toString).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class VersionCanonicalizerTest {
+
+    @Test
+    void defaultRules() {
+        VersionCanonicalizer canonicalizer = new VersionCanonicalizer();
+
+        assertEquals("1.2.0", canonicalizer.canonicalString("v1.2"));
+        assertEquals("1.2.0", canonicalizer.canonicalString("1.2.0"));
+        assertEquals("1.2.0", canonicalizer.canonicalString(" V1.2.0 "));
+        assertEquals("1.0.0", canonicalizer.canonicalString("1"));
+        assertEquals("1.2.0-snapshot", canonicalizer.canonicalString("1.2.0-SNAPSHOT"));
+        assertEquals("1.2.0-snapshot", canonicalizer.canonicalString("1.2-snapshot"));
+        assertEquals("1.2.3-rc-1+Build.7", canonicalizer.canonicalString("01.02.03-RC-01+Build.7"));
+        assertEquals("1.2.3-rc.01", canonicalizer.canonicalString("1.2.3-RC.01"));
+        assertEquals("1.2.0-r0.1-snapshot", canonicalizer.canonicalString("1.2-R0.1-SNAPSHOT"));
+
+        assertTrue(canonicalizer.isSameVersion("v1.2", "1.2.0"));
+        assertTrue(canonicalizer.isSameVersion("1.2.0-SNAPSHOT", "1.2-snapshot"));
+        assertFalse(canonicalizer.isSameVersion("1.2.0-SNAPSHOT", "1.2.0"));
+        assertTrue(canonicalizer.isSameVersion("1.2.0-rc-01", "1.2.0-rc-1"));
+        assertFalse(canonicalizer.isSameVersion("junk", "junk"));
+
+        assertNull(canonicalizer.canonicalize(""));
+        assertNull(canonicalizer.canonicalize("v"));
+        assertNull(canonicalizer.canonicalize("version 1.2"));
+        assertNull(canonicalizer.canonicalize("1.2.3.4"));
+        assertNull(canonicalizer.canonicalize("1.2rc1"));
+        assertNull(canonicalizer.canonicalize("1.2.0-rc..1"));
+        assertNull(canonicalizer.canonicalize("1.2.0-rc--1"));
+        assertNull(canonicalizer.canonicalize("1.2.0-"));
+        assertNull(canonicalizer.canonicalize("1.2.0+"));
+        assertNull(canonicalizer.canonicalize("1.2.3-+b1"));
+        assertNull(new VersionCanonicalizer().dropBuildMetaData(true).canonicalize("1.2.0+"));
+        assertNull(canonicalizer.canonicalize("1.99999999999"));
+    }
+
+    @Test
+    void rules() {
+        assertNull(new VersionCanonicalizer().stripPrefix(false).canonicalize("v1.2.0"));
+        assertNull(new VersionCanonicalizer().padNumbers(false).canonicalize("1.2"));
+        assertEquals("1.2.0", new VersionCanonicalizer().padNumbers(false).canonicalString("1.2.0"));
+        assertEquals("1.2.0-SNAPSHOT", new VersionCanonicalizer().lowerCaseTags(false).canonicalString("1.2-SNAPSHOT"));
+        assertEquals("1.2.0-rc.1", new VersionCanonicalizer().dropBuildMetaData(true).canonicalString("1.2-RC.1+git.abc"));
+        assertTrue(new VersionCanonicalizer().dropBuildMetaData(true).isSameVersion("1.2+a", "1.2.0+b"));
+
+        assertThrows(IllegalArgumentException.class, () -> new VersionCanonicalizer().cacheSize(-1));
+    }
+
+    @Test
+    void cache() {
+        VersionCanonicalizer canonicalizer = new VersionCanonicalizer().cacheSize(8);
+        SemVer v1 = canonicalizer.canonicalize("v1.2");
+        assertSame(v1, canonicalizer.canonicalize("v1.2"));
+        assertSame(v1, canonicalizer.canonicalize("1.2.0"));
+        assertSame(v1, canonicalizer.canonicalize("1.2"));
+        assertNull(canonicalizer.canonicalize("junk"));
+        assertNull(canonicalizer.canonicalize("junk"));
+        // "v1.2", "1.2.0", "1.2" and "junk"
+        assertEquals(4, canonicalizer.cachedCount());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + ".0.0", canonicalizer.canonicalString("v" + i));
+            assertTrue(canonicalizer.cachedCount() <= 8);
+        }
+
+        // Configuration changes clear the cache
+        canonicalizer.lowerCaseTags(false);
+        assertEquals(0, canonicalizer.cachedCount());
+        assertEquals(0, new VersionCanonicalizer().cachedCount());
+    }
+
+    @Test
+    void eviction() {
+        VersionCanonicalizer canonicalizer = new VersionCanonicalizer().cacheSize(8);
+        SemVer shared = canonicalizer.canonicalize("v1.2");
+        assertTrue(canonicalizer.isCached("1.2.0"));
+
+        for (int i = 0; i < 200; i++) {
+            String version = "v" + (i + 10) + ".0";
+            canonicalizer.canonicalize(version);
+            assertTrue(canonicalizer.cachedCount() <= 8);
+            // The newest entry is never evicted
+            assertTrue(canonicalizer.isCached(version), version);
+
+            // A variant in use keeps the shared canonical entry
+            assertSame(shared, canonicalizer.canonicalize("v1.2"));
+            assertTrue(canonicalizer.isCached("1.2.0"), version);
+            assertTrue(canonicalizer.isCached("v1.2"), version);
+        }
+        assertSame(shared, canonicalizer.canonicalize("1.2"));
+        assertSame(shared, canonicalizer.canonicalize("01.2.0"));
+
+        // Entries not used anymore are evicted first
+        assertFalse(canonicalizer.isCached("v10.0"));
+
+        VersionCanonicalizer single = new VersionCanonicalizer().cacheSize(1);
+        assertEquals("1.0.0", single.canonicalString("v1"));
+        assertEquals("2.0.0", single.canonicalString("v2"));
+        assertEquals(1, single.cachedCount());
+        assertTrue(single.isCached("v2"));
+    }
+
+    @Test
+    void concurrent() {
+        VersionCanonicalizer canonicalizer = new VersionCanonicalizer().cacheSize(1024);
+        List<String> variants = IntStream.range(0, 10_000)
+                .mapToObj(i -> (i % 2 == 0 ? "v" : "") + (i % 10) + "." + (i % 7) + (i % 3 == 0 ? "-SNAPSHOT" : ".0-snapshot"))
+                .collect(Collectors.toList());
+
+        Set<String> canonical = variants.parallelStream().map(canonicalizer::canonicalString).collect(Collectors.toSet());
+        assertEquals(70, canonical.size());
+        assertTrue(canonical.contains("3.4.0-snapshot"));
+        assertTrue(canonicalizer.cachedCount() <= 1024);
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class VersionCatalogTest {
+
+    private static final String[] TAGS = {"", "-SNAPSHOT", "-R0.1-SNAPSHOT", "-alpha.1", "-beta.2", "-rc.1", "+build.7"};
+
+    private Path root;
+
+
+    @BeforeEach
+    public void init() throws IOException {
+        root = Files.createTempDirectory("catalog");
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void lookups() throws IOException {
+        Map<String, List<SemVer>> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        try (VersionCatalog catalog = VersionCatalog.open(root)) {
+            assertNull(catalog.latest("unknown"));
+
+            addRandom(catalog, expected, random, 2000);
+            assertEquals(0, catalog.indexedSize());
+            assertLookups(catalog, expected);
+
+            catalog.rebuildIndex();
+            assertEquals(2000, catalog.indexedSize());
+            assertLookups(catalog, expected);
+
+            // Incremental additions are found before the index is rebuilt
+            addRandom(catalog, expected, random, 300);
+            catalog.add("artifact-0", new SemVer("99.0.0-rc.1"));
+            expected.get("artifact-0").add(new SemVer("99.0.0-rc.1"));
+            assertEquals(2000, catalog.indexedSize());
+            assertLookups(catalog, expected);
+        }
+
+        // Reopen
+        try (VersionCatalog catalog = VersionCatalog.open(root)) {
+            assertEquals(2301, catalog.size());
+            assertEquals(2000, catalog.indexedSize());
+            assertLookups(catalog, expected);
+            assertEquals("99.0.0-rc.1", String.valueOf(catalog.latest("artifact-0")));
+
+            catalog.rebuildIndex();
+            assertEquals(2301, catalog.indexedSize());
+            assertLookups(catalog, expected);
+        }
+    }
+
+    @Test
+    void compatible() throws IOException {
+        try (VersionCatalog catalog = VersionCatalog.open(root)) {
+            for (String v : new String[]{"1.0.0", "1.4.2", "1.4.2-rc.1", "2.0.0", "2.1.0-SNAPSHOT", "3.0.0-alpha.1"}) {
+                catalog.add("Essentials", new SemVer(v));
+            }
+            catalog.rebuildIndex();
+
+            assertEquals("3.0.0-alpha.1", String.valueOf(catalog.latest("Essentials")));
+            assertEquals("1.4.2", String.valueOf(catalog.latestCompatible("Essentials", new SemVer("1.2.0"))));
+            assertEquals("2.1.0-SNAPSHOT", String.valueOf(catalog.latestCompatible("Essentials", new SemVer("2.0.0"))));
+            assertNull(catalog.latestCompatible("Essentials", new SemVer("1.5.0")));
+            assertNull(catalog.latestCompatible("Essentials", new SemVer("4.0.0")));
+            assertNull(catalog.latestCompatible("Vault", new SemVer("1.0.0")));
+            assertEquals(4, catalog.dictionarySize());
+        }
+    }
+
+    @Test
+    void limits() {
+        // Offsets are computed as long, and checked instead of overflowing
+        assertEquals(4 + 24 * (VersionCatalog.MAX_RECORDS - 1), VersionCatalog.recordOffset(VersionCatalog.MAX_RECORDS - 1));
+        assertTrue(VersionCatalog.recordOffset(VersionCatalog.MAX_RECORDS - 1) > 0);
+        assertThrows(IllegalStateException.class, () -> VersionCatalog.recordOffset(VersionCatalog.MAX_RECORDS));
+        assertThrows(IllegalStateException.class, () -> VersionCatalog.recordOffset(Integer.MAX_VALUE));
+        assertThrows(IllegalStateException.class, () -> VersionCatalog.entryOffset(Integer.MAX_VALUE / 20 + 1));
+    }
+
+    @Test
+    void corrupted() throws IOException {
+        Files.write(root.resolve("versions.log"), new byte[]{1, 2, 3, 4, 5});
+        assertThrows(IOException.class, () -> VersionCatalog.open(root));
+    }
+
+    private static void addRandom(VersionCatalog catalog, Map<String, List<SemVer>> expected, Random random, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            String artifact = "artifact-" + random.nextInt(50);
+            SemVer version = new SemVer(random.nextInt(4) + "." + random.nextInt(5) + "." + random.nextInt(3) + TAGS[random.nextInt(TAGS.length)]);
+            catalog.add(artifact, version);
+            expected.computeIfAbsent(artifact, k -> new ArrayList<>()).add(version);
+        }
+    }
+
+    private static void assertLookups(VersionCatalog catalog, Map<String, List<SemVer>> expected) {
+        for (Map.Entry<String, List<SemVer>> entry : expected.entrySet()) {
+            List<SemVer> versions = entry.getValue();
+            SemVer latest = versions.stream().max(SemVer::compareTo).orElse(null);
+            assertEquals(0, latest.compareTo(catalog.latest(entry.getKey())), entry.getKey());
+
+            for (int major = 0; major < 5; major++) {
+                SemVer base = new SemVer(major, 1, 0);
+                final int m = major;
+                SemVer compatible = versions.stream().filter(v -> v.major == m).max(SemVer::compareTo)
+                        .filter(v -> v.compareTo(base) >= 0).orElse(null);
+                SemVer found = catalog.latestCompatible(entry.getKey(), base);
+                if (compatible == null)
+                    assertNull(found, entry.getKey() + " " + base);
+                else
+                    assertEquals(0, compatible.compareTo(found), entry.getKey() + " " + base);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class VersionCodecTest {
+
+    private static final String[] VERSIONS = {
+            "1.0.0", "0.0.0", "1.2.3", "300.20000.2147483647", "4.0.0-beta.11", "5.0.0-SNAPSHOT", "5.1.0-alpha.1+build.42",
+            "7.0.0-alpha-dev.51-something+mybuild-1-4-1975-clang", "1.12.2-R0.1-SNAPSHOT", "1.13.2-R0.1-SNAPSHOT",
+            "1.2.3-a.-b+c", "git-Paper-1618 (MC: 1.12.2)", "v1.8"
+    };
+
+    @Test
+    void dataStreams() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (String s : VERSIONS) {
+            Version version = new Version(s);
+            version.writeTo(out);
+            if (version.isSemVer())
+                new SemVer(s).writeTo(out);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (String s : VERSIONS) {
+            Version expected = new Version(s);
+            Version version = Version.readFrom(in);
+            assertVersionEquals(expected, version);
+            if (expected.isSemVer()) {
+                SemVer semVer = SemVer.readFrom(in);
+                assertEquals(new SemVer(s), semVer);
+                assertEquals(new SemVer(s).toString(), semVer.toString());
+            }
+        }
+        assertEquals(0, in.available());
+
+        bytes.reset();
+        new SemVer(1, 2, 3).writeTo(out);
+        assertEquals(5, bytes.size());
+    }
+
+    @Test
+    void buffers() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        VersionCodec writer = new VersionCodec();
+        for (String s : VERSIONS) {
+            writer.write(buffer, new Version(s));
+        }
+        final int firstPass = buffer.position();
+        for (String s : VERSIONS) {
+            writer.write(buffer, new Version(s));
+        }
+        // The second pass only references known tags
+        assertTrue(buffer.position() - firstPass < firstPass);
+
+        buffer.flip();
+        VersionCodec reader = new VersionCodec();
+        for (int pass = 0; pass < 2; pass++) {
+            for (String s : VERSIONS) {
+                assertVersionEquals(new Version(s), reader.readVersion(buffer));
+            }
+        }
+        assertFalse(buffer.hasRemaining());
+        assertEquals(writer.dictionarySize(), reader.dictionarySize());
+
+        // Repeated tags cost one byte
+        buffer.clear();
+        writer.reset();
+        writer.write(buffer, new SemVer("1.12.2-R0.1-SNAPSHOT"));
+        final int first = buffer.position();
+        writer.write(buffer, new SemVer("1.13.2-R0.1-SNAPSHOT"));
+        assertEquals(7, buffer.position() - first);
+    }
+
+    @Test
+    void overflow() {
+        // A write either fits or writes nothing, and can be retried on a larger buffer
+        ByteBuffer stream = ByteBuffer.allocate(4096);
+        VersionCodec writer = new VersionCodec();
+        for (int pass = 0; pass < 2; pass++) {
+            for (String s : VERSIONS) {
+                for (int size = 0; ; size++) {
+                    ByteBuffer buffer = ByteBuffer.allocate(size);
+                    try {
+                        writer.write(buffer, new Version(s));
+                    }
+                    catch (BufferOverflowException e) {
+                        assertEquals(0, buffer.position(), s);
+                        continue;
+                    }
+                    assertEquals(size, buffer.position(), s);
+                    buffer.flip();
+                    stream.put(buffer);
+                    break;
+                }
+            }
+        }
+        writer.write(stream, new SemVer("1.0.0-a-b-a+a"));
+
+        stream.flip();
+        VersionCodec reader = new VersionCodec();
+        for (int pass = 0; pass < 2; pass++) {
+            for (String s : VERSIONS) {
+                assertVersionEquals(new Version(s), reader.readVersion(stream));
+            }
+        }
+        assertEquals("1.0.0-a-b-a+a", reader.readSemVer(stream).toString());
+        assertFalse(stream.hasRemaining());
+    }
+
+    @Test
+    void corrupted() {
+        VersionCodec codec = new VersionCodec();
+        assertThrows(IllegalArgumentException.class, () -> codec.readVersion(ByteBuffer.wrap(new byte[]{7})));
+        assertThrows(IllegalArgumentException.class, () -> codec.readSemVer(ByteBuffer.wrap(new byte[]{1, 2, 3, 1, 3})));
+        assertThrows(IllegalArgumentException.class, () -> codec.readSemVer(ByteBuffer.wrap(new byte[]{1, 2, 3, 1, 4, 'a', '-', 0})));
+        assertThrows(IllegalArgumentException.class, () -> codec.readSemVer(ByteBuffer.wrap(new byte[]{1, 2, 3, 0, 4, '.', '.', 0})));
+        assertThrows(IllegalArgumentException.class, () -> codec.readSemVer(ByteBuffer.wrap(new byte[]{-1, -1, -1, -1, -1, -1})));
+        assertThrows(IllegalArgumentException.class, () -> SemVer.readFrom(new DataInputStream(new ByteArrayInputStream(new byte[]{1, 2, 3, 1, 1}))));
+
+        // 5 bytes varints decoding to negative numbers
+        byte[] negative = {-1, -1, -1, -1, 0x0F, 0, 0, 0, 0};
+        assertThrows(IllegalArgumentException.class, () -> codec.readSemVer(ByteBuffer.wrap(negative)));
+        assertThrows(IllegalArgumentException.class, () -> SemVer.readFrom(new DataInputStream(new ByteArrayInputStream(negative))));
+        byte[] negativeNumbers = {VersionCodec.VERSION_NUMBERS, 1, -1, -1, -1, -1, 0x0F, 0};
+        assertThrows(IllegalArgumentException.class, () -> codec.readVersion(ByteBuffer.wrap(negativeNumbers)));
+        assertThrows(IllegalArgumentException.class, () -> Version.readFrom(new DataInputStream(new ByteArrayInputStream(negativeNumbers))));
+
+        byte[] valid = {1, 2, 3, 1, 4, 'r', 'c', 0};
+        assertEquals("1.2.3-rc", codec.readSemVer(ByteBuffer.wrap(valid)).toString());
+        assertThrows(java.nio.BufferUnderflowException.class, () -> new VersionCodec().readSemVer(ByteBuffer.wrap(Arrays.copyOf(valid, 6))));
+    }
+
+    private static void assertVersionEquals(Version expected, Version actual) {
+        assertEquals(expected.isSemVer(), actual.isSemVer(), expected.toString());
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected, actual);
+        assertEquals(0, expected.compareTo(actual));
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class VersionConstraintTest {
+
+    @Test
+    void comparisons() {
+        VersionConstraint range = VersionConstraint.parse(">=1.8 <1.13");
+        assertTrue(range.test(new Version("1.8.0")));
+        assertTrue(range.test(new Version("1.12.2")));
+        assertFalse(range.test(new Version("1.13")));
+        assertFalse(range.test(new Version("1.7.10")));
+        assertTrue(range.test(new Version("git-Spigot-1.12.2-R0.1 (MC: 1.12.2)")));
+
+        assertTrue(VersionConstraint.parse("1.2.3").test(new Version("1.2.3")));
+        assertTrue(VersionConstraint.parse("=1.2.3").test(new Version("1.2.3+build.7")));
+        assertFalse(VersionConstraint.parse("=1.2.3").test(new Version("1.2.3-rc.1")));
+        assertTrue(VersionConstraint.parse(">1.2.3").test(new Version("1.2.4")));
+        assertFalse(VersionConstraint.parse(">1.2.3").test(new Version("1.2.3")));
+        assertTrue(VersionConstraint.parse("<=1.2.3").test(new Version("1.2.3")));
+        assertTrue(VersionConstraint.parse("<1.2.3").test(new Version("1.2.3-rc.1")));
+        assertTrue(VersionConstraint.parse("*").test(new Version("0.0.1")));
+        assertTrue(VersionConstraint.ANY.test(new Version(7, 0, 0)));
+        assertTrue(VersionConstraint.atLeast(new Version(2, 0, 0)).test(new SemVer("2.0.1")));
+        assertFalse(VersionConstraint.atLeast(new Version(2, 0, 0)).test(new SemVer("2.0.0-rc.1")));
+
+        // Contradictory terms never match
+        assertFalse(VersionConstraint.parse(">2 <1").test(new Version(1, 5, 0)));
+    }
+
+    @Test
+    void ranges() {
+        VersionConstraint caret = VersionConstraint.parse("^1.2.3");
+        assertTrue(caret.test(new Version(1, 2, 3)));
+        assertTrue(caret.test(new Version(1, 9, 0)));
+        assertFalse(caret.test(new Version(2, 0, 0)));
+        assertFalse(caret.test(new Version(1, 2, 2)));
+
+        VersionConstraint caretZero = VersionConstraint.parse("^0.2.3");
+        assertTrue(caretZero.test(new Version(0, 2, 9)));
+        assertFalse(caretZero.test(new Version(0, 3, 0)));
+
+        VersionConstraint tilde = VersionConstraint.parse("~1.2.3");
+        assertTrue(tilde.test(new Version(1, 2, 9)));
+        assertFalse(tilde.test(new Version(1, 3, 0)));
+
+        VersionConstraint alternatives = VersionConstraint.parse("^1.2.0 || ~3.0.1 || =5.0.0");
+        assertEquals(3, alternatives.alternatives());
+        assertTrue(alternatives.test(new Version(1, 4, 0)));
+        assertTrue(alternatives.test(new Version(3, 0, 5)));
+        assertTrue(alternatives.test(new Version(5, 0, 0)));
+        assertFalse(alternatives.test(new Version(4, 0, 0)));
+        assertEquals("^1.2.0 || ~3.0.1 || =5.0.0", alternatives.toString());
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(">=1.2 ||"));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(">="));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("=>1.2"));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("latest"));
+
+        // Bounds are not extracted loosely from noisy strings
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(">=foo1.8bar"));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("<1.8-whatever-junk!"));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("<1.8-rc"));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(">=v1.8"));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(">=1.8."));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(">=1..8"));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(">=1.2.3.4"));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("<9999999999"));
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("git-Bukkit-1.7.10"));
+
+        // Strict versions and numbers separated by dots are still accepted
+        assertTrue(VersionConstraint.parse("<1.8.0-whatever-junk").test(new Version("1.7.10")));
+        assertTrue(VersionConstraint.parse(">=1.08").test(new Version("1.8.0")));
+        assertTrue(VersionConstraint.parse("<2").test(new Version("1.99.0")));
+    }
+}
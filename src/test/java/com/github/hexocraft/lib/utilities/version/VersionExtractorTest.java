@@ -0,0 +1,91 @@
+package com.github.hexocraft.lib.utilities.version;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class VersionExtractorTest {
+
+    @Test
+    void defaultRules() {
+        VersionExtractor extractor = new VersionExtractor();
+
+        assertEquals("10.2.3", toString(extractor.extract("v10.2.3")));
+        assertEquals("1.12.2", toString(extractor.extract("git-Paper-1618 (MC: 1.12.2)")));
+        assertEquals("1.7.10", toString(extractor.extract("git-Bukkit-1.7.10-R0.1-b3100jnks (MC: 1.7.10)")));
+        assertEquals("1.7.2", toString(extractor.extract("This server is running CraftBukkit version git-Bukkit-1.7.2-R0.3")));
+        assertEquals("1.2.3", toString(extractor.extract("1.2.3.4")));
+        assertEquals("1.8.0", toString(extractor.extract("v1.8")));
+        assertEquals("1.2.3-rc.1", toString(extractor.extract("1.2.3-rc.1")));
+        assertTrue(Objects.requireNonNull(extractor.extract("1.2.3-rc.1")).isSemVer());
+        assertFalse(Objects.requireNonNull(extractor.extract("v1.2.3")).isSemVer());
+
+        assertNull(extractor.extract("no number"));
+        assertNull(extractor.extract("build 1234"));
+        assertNull(extractor.extract("1.99999999999"));
+        assertEquals("1.2.0", toString(extractor.extract("1.99999999999 1.2")));
+    }
+
+    @Test
+    void rules() {
+        String server = "CraftBukkit (MC: 1.7.9) git-Bukkit-1.7.10-R0.1";
+        assertEquals("1.7.10", toString(new VersionExtractor().extract(server)));
+        assertEquals("1.7.9", toString(new VersionExtractor().preferToken("MC:").extract(server)));
+        assertEquals("1.7.10", toString(new VersionExtractor().preferToken("Forge:").extract(server)));
+
+        assertEquals("1.0.0", toString(new VersionExtractor().minimumParts(1).extract("build 1")));
+        assertEquals("1.2.0", toString(new VersionExtractor().lastCandidate(true).extract("1.1 then 1.2")));
+        assertEquals("1.1.0", toString(new VersionExtractor().lastCandidate(false).extract("1.1 then 1.2")));
+
+        assertThrows(IllegalArgumentException.class, () -> new VersionExtractor().minimumParts(4));
+        assertThrows(IllegalArgumentException.class, () -> new VersionExtractor().preferToken(""));
+        assertThrows(IllegalArgumentException.class, () -> new VersionExtractor().cacheSize(-1));
+    }
+
+    @Test
+    void cache() {
+        VersionExtractor extractor = new VersionExtractor().preferToken("MC:").cacheSize(2);
+        Version v1 = extractor.extract("git-Paper-1618 (MC: 1.12.2)");
+        assertSame(v1, extractor.extract("git-Paper-1618 (MC: 1.12.2)"));
+        assertNull(extractor.extract("no number"));
+        assertNull(extractor.extract("no number"));
+        assertEquals(2, extractor.cachedCount());
+
+        extractor.extract("git-Paper-225 (MC: 1.14.4)");
+        assertEquals(2, extractor.cachedCount());
+
+        assertEquals(0, new VersionExtractor().cachedCount());
+    }
+
+    @Test
+    void version() {
+        assertEquals(10, new Version("v10.2.3").major);
+        assertEquals("1.12.2", new Version("git-Spigot-1.12.2").toString());
+        assertEquals("1.12.2", Objects.requireNonNull(Version.parse("git-Paper-1618 (MC: 1.12.2)")).toString());
+    }
+
+    private static String toString(Version version) {
+        return version == null ? null : version.toString();
+    }
+}
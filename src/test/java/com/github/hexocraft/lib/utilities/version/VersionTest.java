@@ -24,6 +24,11 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -147,4 +152,56 @@ class VersionTest {
         assertFalse(Objects.requireNonNull(Version.parse("1.0.0")).isCompatibleUpdateFor(Version.parse("0.1.0")));
         assertFalse(Objects.requireNonNull(Version.parse("2.1.0")).isCompatibleUpdateFor(Version.parse("1.1.0")));
     }
+
+    @Test
+    void formatting() throws IOException {
+        Version[] versions = {new Version(1, 2, 3), new Version("1.2.3-rc.1+b"), new Version("git-Spigot-1.12.2"),
+                new Version(2147483647, 0, 10), new Version(1, -1, -2147483648), new Version("1.2.3")};
+        for (Version version : versions) {
+            String expected = version.toString();
+            assertEquals(expected.length(), version.encodedLength(), expected);
+            assertEquals(expected, version.appendTo(new StringBuilder()).toString());
+            assertEquals(expected, version.appendTo((Appendable) new StringWriter()).toString());
+
+            ByteBuffer buffer = ByteBuffer.allocate(version.encodedLength());
+            version.writeUtf8(buffer);
+            assertFalse(buffer.hasRemaining());
+            assertEquals(expected, new String(buffer.array(), StandardCharsets.UTF_8));
+        }
+
+        ByteBuffer small = ByteBuffer.allocate(4);
+        assertThrows(BufferOverflowException.class, () -> new Version(1, 2, 30).writeUtf8(small));
+        assertEquals(0, small.position());
+    }
+
+    @Test
+    void lazy() {
+        String[] versions = {"1.2.3", "1.2.3-alpha.1", "1.2.3-alpha.1+build", "1.2.3+build", "1.2.3-a-", "v1.2.3",
+                "git-Spigot-1.12.2", "01.2.3", "1.2"};
+        for (String version : versions) {
+            Version v = new Version(version);
+            SemVer semVer = SemVer.parse(version);
+            assertEquals(semVer != null, v.isSemVer(), version);
+            assertEquals(semVer, v.toSemVer(), version);
+            if (semVer != null) {
+                assertEquals(semVer.major, v.major, version);
+                assertEquals(semVer.minor, v.minor, version);
+                assertEquals(semVer.patch, v.patch, version);
+                assertEquals(semVer.toString(), v.toString(), version);
+            }
+        }
+
+        assertEquals(new SemVer(1, 2, 3), new Version(1, 2, 3).toSemVer());
+        assertEquals(new Version("1.2.3"), new Version(1, 2, 3));
+        assertNotEquals(new Version("1.2.3+build"), new Version(1, 2, 3));
+        assertNotEquals(new Version("1.2.3"), new Version("v1.2.3"));
+        assertEquals(new Version("v1.2.3"), new Version("1.2.3"));
+        assertEquals(0, new Version("1.2.3+build").compareTo(new Version("1.2.3")));
+        assertTrue(new Version("1.2.3-rc.1").isLessThan(new Version("1.2.3")));
+        assertEquals(0, new Version("1.2.3-rc.1").compareTo(new Version("v1.2.3")));
+
+        assertNull(Version.parse("1.99999999999"));
+        assertThrows(IllegalArgumentException.class, () -> new Version("1.99999999999"));
+        assertEquals("2.0.0", Objects.requireNonNull(Version.parse("v2.000")).toString());
+    }
 }
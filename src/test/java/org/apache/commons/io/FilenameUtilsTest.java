@@ -0,0 +1,189 @@
+package org.apache.commons.io;
+
+/*
+
+ Copyright 2018 hexosse
+
+ Licensed under the Apache License, Version 2.0 (the "License")
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class FilenameUtilsTest {
+
+    private static final String[] HOST_NAMES = {
+            "server", "server.", "server..", ".server", "my-server", "-server", "server-", "a.b.c", "a..b", "a.-b",
+            "127.0.0.1", "255.255.255.255", "256.0.0.1", "01.2.3.4", "1.2.3", "1.2.3.4.5",
+            "::", "::1", "1::", "1::2", ":::", "1:::2", "1::2::3", ":1", "1:", "1:2:3:4:5:6:7:8", "1:2:3:4:5:6:7",
+            "1:2:3:4:5:6:7:8:9", "1:2:3:4:5:6:7::", "::1:2:3:4:5:6:7", "::1:2:3:4:5:6:7:8", "1::2:3:4:5:6:7:8",
+            "fe80::1", "FE80::ABCD:ef01", "12345::", "g::1", "::ffff:192.168.0.1", "::ffff:192.168.0.256",
+            "1.2.3.4::", "1:2:3:4:5:6:1.2.3.4", "1:2:3:4:5:6:7:1.2.3.4", "::1.2.3.4", "se rver", "serv_er", "ser\u00e9ver"
+    };
+
+    @Test
+    void hostNames() {
+        for (String host : HOST_NAMES) {
+            assertHostName(host);
+        }
+
+        // Random names over the characters meaningful to the validators
+        final char[] alphabet = "0123456789abcdefgABCFG:.-_".toCharArray();
+        final Random random = new Random(42);
+        for (int n = 0; n < 50000; n++) {
+            final char[] host = new char[1 + random.nextInt(16)];
+            for (int i = 0; i < host.length; i++) {
+                host[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            assertHostName(new String(host));
+        }
+    }
+
+    @Test
+    void wildcardMatch() {
+        assertTrue(FilenameUtils.wildcardMatch("c.txt", "*.txt"));
+        assertFalse(FilenameUtils.wildcardMatch("c.txt", "*.jpg"));
+        assertTrue(FilenameUtils.wildcardMatch("a/b/c.txt", "a/b/*"));
+        assertTrue(FilenameUtils.wildcardMatch("c.txt", "*.???"));
+        assertFalse(FilenameUtils.wildcardMatch("c.txt", "*.????"));
+        assertTrue(FilenameUtils.wildcardMatch("C.TXT", "c.*", IOCase.INSENSITIVE));
+        assertFalse(FilenameUtils.wildcardMatch("C.TXT", "c.*", IOCase.SENSITIVE));
+        assertTrue(FilenameUtils.wildcardMatch(null, null));
+        assertFalse(FilenameUtils.wildcardMatch("c.txt", null));
+
+        // the '*' of "*?" is ignored
+        assertTrue(FilenameUtils.wildcardMatch("a", "*?"));
+        assertFalse(FilenameUtils.wildcardMatch("ab", "*?"));
+        assertTrue(FilenameUtils.wildcardMatch("abc", "a*?c"));
+        assertFalse(FilenameUtils.wildcardMatch("abbc", "a*?c"));
+        assertFalse(FilenameUtils.wildcardMatch("", "*?"));
+    }
+
+    private static void assertHostName(String host) {
+        final int expected = LegacyHostNameValidator.isValidHostName(host) ? host.length() + 3 : -1;
+        assertEquals(expected, FilenameUtils.getPrefixLength("//" + host + "/a/b.txt"), host);
+        assertEquals(expected, FilenameUtils.getPrefixLength("\\\\" + host + "\\a\\b.txt"), host);
+    }
+
+
+    /**
+     * Regex based validation used by getPrefixLength before the single-pass validator.
+     */
+    private static final class LegacyHostNameValidator {
+
+        private static final Pattern IPV4_PATTERN = Pattern.compile("^(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})$");
+        private static final Pattern REG_NAME_PART_PATTERN = Pattern.compile("^[a-zA-Z0-9][a-zA-Z0-9-]*$");
+
+        static boolean isValidHostName(final String name) {
+            return isIPv6Address(name) || isRFC3986HostName(name);
+        }
+
+        static boolean isIPv4Address(final String name) {
+            final Matcher m = IPV4_PATTERN.matcher(name);
+            if (!m.matches() || m.groupCount() != 4) {
+                return false;
+            }
+            for (int i = 1; i <= 4; i++) {
+                final String ipSegment = m.group(i);
+                if (Integer.parseInt(ipSegment) > 255) {
+                    return false;
+                }
+                if (ipSegment.length() > 1 && ipSegment.startsWith("0")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        static boolean isIPv6Address(final String inet6Address) {
+            final boolean containsCompressedZeroes = inet6Address.contains("::");
+            if (containsCompressedZeroes && (inet6Address.indexOf("::") != inet6Address.lastIndexOf("::"))) {
+                return false;
+            }
+            if ((inet6Address.startsWith(":") && !inet6Address.startsWith("::"))
+                    || (inet6Address.endsWith(":") && !inet6Address.endsWith("::"))) {
+                return false;
+            }
+            String[] octets = inet6Address.split(":");
+            if (containsCompressedZeroes) {
+                final List<String> octetList = new ArrayList<>(Arrays.asList(octets));
+                if (inet6Address.endsWith("::")) {
+                    octetList.add("");
+                } else if (inet6Address.startsWith("::") && !octetList.isEmpty()) {
+                    octetList.remove(0);
+                }
+                octets = octetList.toArray(new String[0]);
+            }
+            if (octets.length > 8) {
+                return false;
+            }
+            int validOctets = 0;
+            int emptyOctets = 0;
+            for (int index = 0; index < octets.length; index++) {
+                final String octet = octets[index];
+                if (octet.length() == 0) {
+                    emptyOctets++;
+                    if (emptyOctets > 1) {
+                        return false;
+                    }
+                } else {
+                    emptyOctets = 0;
+                    if (index == octets.length - 1 && octet.contains(".")) {
+                        if (!isIPv4Address(octet)) {
+                            return false;
+                        }
+                        validOctets += 2;
+                        continue;
+                    }
+                    if (octet.length() > 4) {
+                        return false;
+                    }
+                    int octetInt;
+                    try {
+                        octetInt = Integer.parseInt(octet, 16);
+                    } catch (final NumberFormatException e) {
+                        return false;
+                    }
+                    if (octetInt < 0 || octetInt > 0xffff) {
+                        return false;
+                    }
+                }
+                validOctets++;
+            }
+            return validOctets <= 8 && (validOctets >= 8 || containsCompressedZeroes);
+        }
+
+        static boolean isRFC3986HostName(final String name) {
+            final String[] parts = name.split("\\.", -1);
+            for (int i = 0; i < parts.length; i++) {
+                if (parts[i].length() == 0) {
+                    return i == parts.length - 1;
+                }
+                if (!REG_NAME_PART_PATTERN.matcher(parts[i]).matches()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}